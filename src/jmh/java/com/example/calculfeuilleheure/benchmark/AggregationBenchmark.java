@@ -0,0 +1,71 @@
+package com.example.calculfeuilleheure.benchmark;
+
+import com.example.calculfeuilleheure.model.TimesheetColumns;
+import com.example.calculfeuilleheure.model.TimesheetEntry;
+import com.example.calculfeuilleheure.service.ParallelTotalsEngine;
+import com.example.calculfeuilleheure.service.TotalsAggregator;
+import com.example.calculfeuilleheure.service.TotalsReport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks du calcul complet des totaux sur de gros volumes : moteur
+ * parallèle, même calcul séquentiel, sur une liste d'entrées ou sur des
+ * colonnes, et reconstruction de l'agrégateur incrémental (totaux
+ * journaliers et hebdomadaires seulement).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AggregationBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int size;
+
+    private List<TimesheetEntry> entries;
+    private TimesheetColumns columns;
+    private ParallelTotalsEngine engine;
+
+    @Setup
+    public void setUp() {
+        entries = BenchmarkData.entries(size);
+        columns = TimesheetColumns.of(entries);
+        engine = new ParallelTotalsEngine();
+    }
+
+    @Benchmark
+    public TotalsReport parallel() {
+        return engine.aggregate(entries);
+    }
+
+    @Benchmark
+    public TotalsReport sequential() {
+        return ParallelTotalsEngine.aggregateSequential(entries);
+    }
+
+    @Benchmark
+    public TotalsReport columnarParallel() {
+        return engine.aggregate(columns);
+    }
+
+    @Benchmark
+    public TotalsReport columnarSequential() {
+        return ParallelTotalsEngine.aggregateSequential(columns);
+    }
+
+    @Benchmark
+    public TotalsAggregator aggregatorRebuild() {
+        TotalsAggregator aggregator = new TotalsAggregator();
+        aggregator.rebuild(entries);
+        return aggregator;
+    }
+}
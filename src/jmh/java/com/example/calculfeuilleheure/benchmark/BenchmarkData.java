@@ -0,0 +1,36 @@
+package com.example.calculfeuilleheure.benchmark;
+
+import com.example.calculfeuilleheure.model.TimesheetEntry;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Jeux de données reproductibles pour les benchmarks : deux ou trois
+ * créneaux par jour, dont des créneaux de nuit, sur des jours consécutifs.
+ */
+final class BenchmarkData {
+
+    static final LocalDate START = LocalDate.of(2020, 1, 6);
+
+    private BenchmarkData() {
+    }
+
+    static List<TimesheetEntry> entries(int count) {
+        Random random = new Random(1234);
+        List<TimesheetEntry> entries = new ArrayList<>(count);
+        LocalDate date = START;
+        while (entries.size() < count) {
+            int shifts = 2 + random.nextInt(2);
+            for (int s = 0; s < shifts && entries.size() < count; s++) {
+                int start = random.nextInt(24 * 4) * 15;
+                int end = (start + 60 + random.nextInt(8 * 4) * 15) % (24 * 60);
+                entries.add(TimesheetEntry.ofMinutes(date, start, end));
+            }
+            date = date.plusDays(1);
+        }
+        return entries;
+    }
+}
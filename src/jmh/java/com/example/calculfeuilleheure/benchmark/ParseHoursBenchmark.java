@@ -0,0 +1,49 @@
+package com.example.calculfeuilleheure.benchmark;
+
+import com.example.calculfeuilleheure.model.TimesheetEntry;
+import com.example.calculfeuilleheure.util.HoursParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare l'ancienne analyse des heures (regex puis split et Integer.parseInt)
+ * avec l'analyse en un seul passage de {@link HoursParser}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ParseHoursBenchmark {
+
+    private final String[] inputs = {"8h30", "08h30", "17h45", "23h59", "0h05", "12h00"};
+
+    @Benchmark
+    public void legacyRegexAndSplit(Blackhole blackhole) {
+        for (String text : inputs) {
+            if (text.matches("^\\d{1,2}h\\d{2}$")) {
+                String[] parts = text.split("h");
+                blackhole.consume(Integer.parseInt(parts[0]) + Integer.parseInt(parts[1]) / 60.0);
+            }
+        }
+    }
+
+    @Benchmark
+    public void singlePass(Blackhole blackhole) {
+        for (String text : inputs) {
+            blackhole.consume(HoursParser.parse(text));
+        }
+    }
+
+    @Benchmark
+    public void timesheetEntryParseHours(Blackhole blackhole) {
+        for (String text : inputs) {
+            blackhole.consume(TimesheetEntry.parseHours(text));
+        }
+    }
+}
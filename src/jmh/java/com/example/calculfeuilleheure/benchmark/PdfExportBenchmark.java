@@ -0,0 +1,51 @@
+package com.example.calculfeuilleheure.benchmark;
+
+import com.example.calculfeuilleheure.export.TimesheetPdfExporter;
+import com.example.calculfeuilleheure.model.TimesheetEntry;
+import com.example.calculfeuilleheure.service.TotalsAggregator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de l'export PDF complet vers un flux nul.
+ * Mesuré en temps d'une exécution unique : un export de 1M lignes dure plusieurs secondes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PdfExportBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private List<TimesheetEntry> entries;
+    private TotalsAggregator totals;
+
+    @Setup
+    public void setUp() {
+        entries = BenchmarkData.entries(size);
+        totals = new TotalsAggregator();
+        totals.rebuild(entries);
+    }
+
+    @Benchmark
+    public void createPdf() {
+        new TimesheetPdfExporter().createPdf(entries, totals, OutputStream.nullOutputStream());
+    }
+}
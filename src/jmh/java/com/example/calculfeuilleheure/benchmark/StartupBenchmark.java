@@ -0,0 +1,103 @@
+package com.example.calculfeuilleheure.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Temps de démarrage à froid de l'application : du lancement du processus à
+ * la première image de la fenêtre, signalée par la sonde de démarrage de
+ * {@code MainApp} ({@code -Dcalculfeuilleheure.startupProbe=true}).
+ * <p>
+ * {@code classpath} lance l'application avec le JDK et le classpath courants ;
+ * {@code image} utilise l'image jlink et son archive AppCDS, construites au
+ * préalable par {@code mvn -Pruntime package} (emplacement modifiable avec la
+ * propriété {@code startup.image}). Un affichage est nécessaire.
+ * <pre>
+ * mvn -Pruntime package &amp;&amp; mvn -Pjmh test-compile exec:exec -Djmh.args="Startup"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 10)
+public class StartupBenchmark {
+
+    private static final String MAIN_CLASS = "com.example.calculfeuilleheure.MainApp";
+    private static final String PROBE_OUTPUT = "Premier affichage";
+
+    @Param({"classpath", "image"})
+    private String launch;
+
+    private Path dataDirectory;
+    private Process process;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // Données vides : seul le démarrage est mesuré, pas le chargement des entrées
+        dataDirectory = Files.createTempDirectory("startup-benchmark");
+    }
+
+    @Benchmark
+    public void firstFrame() throws IOException {
+        process = command().redirectErrorStream(true).start();
+        try (BufferedReader output = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = output.readLine()) != null) {
+                if (line.startsWith(PROBE_OUTPUT)) {
+                    return;
+                }
+            }
+        }
+        throw new IllegalStateException("L'application s'est arrêtée sans afficher sa fenêtre");
+    }
+
+    @TearDown(Level.Invocation)
+    public void stopApplication() throws InterruptedException {
+        // L'application quitte d'elle-même après la mesure
+        if (process != null && !process.waitFor(10, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+
+    private ProcessBuilder command() {
+        String dataDir = "-Dcalculfeuilleheure.dataDir=" + dataDirectory;
+        if (launch.equals("image")) {
+            Path image = Path.of(System.getProperty("startup.image", "target/image"));
+            ProcessBuilder builder = new ProcessBuilder(image.resolve("bin/calcul-feuille-heure").toString());
+            builder.environment().put("JAVA_OPTS", "-Dcalculfeuilleheure.startupProbe=true " + dataDir);
+            return builder;
+        }
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-Dcalculfeuilleheure.startupProbe=true");
+        command.add(dataDir);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(MAIN_CLASS);
+        return new ProcessBuilder(command);
+    }
+}
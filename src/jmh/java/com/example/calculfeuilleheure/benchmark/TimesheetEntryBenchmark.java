@@ -0,0 +1,104 @@
+package com.example.calculfeuilleheure.benchmark;
+
+import com.example.calculfeuilleheure.model.TimesheetEntry;
+import com.example.calculfeuilleheure.model.TimesheetRepository;
+import com.example.calculfeuilleheure.service.TotalsAggregator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks des méthodes de {@link TimesheetEntry} appelées pour chaque ligne
+ * du tableau et du PDF, et des aides statiques qui parcourent la liste des entrées.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TimesheetEntryBenchmark {
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    private List<TimesheetEntry> entries;
+    private TimesheetRepository repository;
+    private TotalsAggregator totals;
+    private TimesheetEntry probe;
+    // Champ non final pour éviter que le JIT ne plie l'analyse en constante
+    private String hoursText = "17h45";
+
+    @Setup
+    public void setUp() {
+        entries = BenchmarkData.entries(size);
+        repository = new TimesheetRepository(entries);
+        totals = new TotalsAggregator();
+        totals.rebuild(entries);
+        probe = entries.get(size / 2);
+    }
+
+    @Benchmark
+    public void formatHours(Blackhole blackhole) {
+        blackhole.consume(probe.getHoursFormatted());
+        blackhole.consume(probe.getEndHoursFormatted());
+        blackhole.consume(probe.getWorkedHoursFormatted());
+        blackhole.consume(TimesheetEntry.formatHours(41.5));
+    }
+
+    @Benchmark
+    public double getWorkedHours() {
+        return probe.getWorkedHours();
+    }
+
+    @Benchmark
+    public double parseHours() {
+        return TimesheetEntry.parseHours(hoursText);
+    }
+
+    @Benchmark
+    public double calculateTotalHoursForDate() {
+        return TimesheetEntry.calculateTotalHoursForDate(entries, probe.getDate());
+    }
+
+    @Benchmark
+    public double calculateTotalHoursForWeek() {
+        return TimesheetEntry.calculateTotalHoursForWeek(entries, probe.getWeekYear(), probe.getWeekNumber());
+    }
+
+    @Benchmark
+    public boolean isPartOfGroup() {
+        return probe.isPartOfGroup(entries);
+    }
+
+    @Benchmark
+    public boolean isLastInWeek() {
+        return probe.isLastInWeek(entries);
+    }
+
+    @Benchmark
+    public double calculateTotalHoursForWeekIndexed() {
+        return TimesheetEntry.calculateTotalHoursForWeek(repository, probe.getWeekYear(), probe.getWeekNumber());
+    }
+
+    @Benchmark
+    public boolean isLastInWeekIndexed() {
+        return probe.isLastInWeek(repository);
+    }
+
+    @Benchmark
+    public int calculateTotalMinutesForWeekAggregated() {
+        return totals.getWeeklyTotal(probe.getYearWeek());
+    }
+
+    @Benchmark
+    public boolean isLastInWeekAggregated() {
+        return totals.isLastInWeek(probe);
+    }
+}
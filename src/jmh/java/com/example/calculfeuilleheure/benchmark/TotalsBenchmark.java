@@ -0,0 +1,54 @@
+package com.example.calculfeuilleheure.benchmark;
+
+import com.example.calculfeuilleheure.model.TimesheetEntry;
+import com.example.calculfeuilleheure.service.TotalsAggregator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks du calcul des totaux du contrôleur, hors interface :
+ * recalcul complet et mise à jour incrémentale d'une entrée.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TotalsBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private List<TimesheetEntry> entries;
+    private TotalsAggregator aggregator;
+    private TimesheetEntry extra;
+
+    @Setup
+    public void setUp() {
+        entries = BenchmarkData.entries(size);
+        aggregator = new TotalsAggregator();
+        aggregator.rebuild(entries);
+        extra = TimesheetEntry.ofMinutes(entries.get(size - 1).getDate(), 8 * 60, 12 * 60);
+    }
+
+    @Benchmark
+    public TotalsAggregator fullRebuild() {
+        TotalsAggregator rebuilt = new TotalsAggregator();
+        rebuilt.rebuild(entries);
+        return rebuilt;
+    }
+
+    @Benchmark
+    public int incrementalAddRemove() {
+        aggregator.add(extra);
+        aggregator.remove(extra);
+        return aggregator.getWeeklyTotal(extra.getYearWeek());
+    }
+}
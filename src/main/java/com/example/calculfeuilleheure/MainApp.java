@@ -1,29 +1,94 @@
 package com.example.calculfeuilleheure;
 
+import com.example.calculfeuilleheure.controller.MainController;
+import com.example.calculfeuilleheure.metrics.Metrics;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 
+import java.nio.file.Path;
+import java.time.Instant;
+
 /**
  * Classe principale de l'application JavaFX.
  * Elle initialise la fenêtre principale et charge la vue FXML.
  */
 public class MainApp extends Application {
 
+    private MainController controller;
+
     @Override
     public void start(Stage primaryStage) throws Exception {
+        // Mesures consultables en JMX (jconsole, VisualVM...) : le serveur JMX met
+        // plusieurs centaines de millisecondes à démarrer, il ne doit pas retarder la fenêtre
+        Thread jmx = new Thread(Metrics::registerMBean, "metrics-jmx");
+        jmx.setDaemon(true);
+        jmx.start();
+
         // Chargement du fichier FXML pour la vue principale
         FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/MainView.fxml"));
         Parent root = loader.load();
 
+        // Chargement des entrées enregistrées lors des sessions précédentes
+        controller = loader.getController();
+        controller.openStore(dataDirectory());
+
         // Configuration de la scène principale
         Scene scene = new Scene(root);
         primaryStage.setTitle("Calcul Feuille d'Heure");
         primaryStage.setScene(scene);
         primaryStage.setResizable(false);
         primaryStage.show();
+
+        if (Boolean.getBoolean("calculfeuilleheure.startupProbe")) {
+            reportFirstFrame(scene);
+        }
+    }
+
+    /**
+     * Mesure de démarrage : affiche le délai entre le lancement de la JVM et la
+     * première image de la fenêtre, puis quitte l'application. Utilisée par le
+     * banc d'essai de démarrage et pour l'apprentissage de l'archive CDS.
+     * @param scene scène principale
+     */
+    private static void reportFirstFrame(Scene scene) {
+        scene.addPostLayoutPulseListener(new Runnable() {
+            @Override
+            public void run() {
+                scene.removePostLayoutPulseListener(this);
+                // Exécuté après l'impulsion qui a rendu la première image
+                Platform.runLater(() -> {
+                    long started = ProcessHandle.current().info().startInstant()
+                            .map(Instant::toEpochMilli)
+                            .orElse(System.currentTimeMillis());
+                    System.out.println("Premier affichage : " + (System.currentTimeMillis() - started) + " ms");
+                    Platform.exit();
+                });
+            }
+        });
+    }
+
+    @Override
+    public void stop() {
+        if (controller != null) {
+            controller.closeStore();
+        }
+    }
+
+    /**
+     * Répertoire des données enregistrées, modifiable avec la propriété
+     * système {@code calculfeuilleheure.dataDir}.
+     * @return répertoire des données
+     */
+    private static Path dataDirectory() {
+        String configured = System.getProperty("calculfeuilleheure.dataDir");
+        if (configured != null) {
+            return Path.of(configured);
+        }
+        return Path.of(System.getProperty("user.home"), ".calcul-feuille-heure");
     }
 
     public static void main(String[] args) {
@@ -0,0 +1,261 @@
+package com.example.calculfeuilleheure.cli;
+
+import com.example.calculfeuilleheure.export.TimesheetPdfExporter;
+import com.example.calculfeuilleheure.io.TimesheetCsvReader;
+import com.example.calculfeuilleheure.model.TimesheetColumns;
+import com.example.calculfeuilleheure.model.TimesheetEntry;
+import com.example.calculfeuilleheure.persistence.TimesheetArchive;
+import com.example.calculfeuilleheure.persistence.TimesheetStore;
+import com.example.calculfeuilleheure.service.ParallelTotalsEngine;
+import com.example.calculfeuilleheure.service.PayCalculator;
+import com.example.calculfeuilleheure.service.PayRules;
+import com.example.calculfeuilleheure.service.PaySummary;
+import com.example.calculfeuilleheure.service.TotalsAggregator;
+import com.example.calculfeuilleheure.service.TotalsReport;
+import com.example.calculfeuilleheure.util.HoursFormat;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Traitement par lot, sans interface graphique : calcule les totaux et génère
+ * un PDF par employé à partir d'un répertoire de feuilles d'heure.
+ * <p>
+ * Chaque sous-répertoire du répertoire d'entrée contient les données enregistrées
+ * d'un employé (voir {@link TimesheetStore}) ; son nom est utilisé pour le PDF.
+ * Un fichier {@code <nom>.csv} (voir {@link TimesheetCsvReader}) ou une archive
+ * {@code <nom>.archive} (voir {@link TimesheetArchive}) peut aussi remplacer le
+ * sous-répertoire.
+ * Les employés sont traités en parallèle, un par cœur par défaut. Les entrées
+ * de chaque employé sont rangées en colonnes triées par date
+ * ({@link TimesheetColumns}) : les totaux par jour, semaine, mois et année
+ * ({@link ParallelTotalsEngine#aggregateSequential(TimesheetColumns)}), les
+ * totaux de paie et le PDF lisent ces colonnes, et les entrées du PDF sont
+ * présentées par date. Le parallélisme est celui des employés : les totaux
+ * d'un employé sont calculés dans le thread qui le traite, sans second niveau
+ * de parallélisme dans le pool commun. Les totaux de
+ * paie (nuit, pauses, heures supplémentaires) sont calculés avec les mêmes
+ * règles compilées pour tous les employés ; {@link #combine(List)} cumule
+ * les totaux de tous les employés.
+ * <p>
+ * Usage : {@code BatchExport <répertoire d'entrée> <répertoire de sortie> [--threads N]}
+ */
+public class BatchExport {
+
+    private static final String CSV_EXTENSION = ".csv";
+
+    private final Path inputDirectory;
+    private final Path outputDirectory;
+    private final int threads;
+    private final PayCalculator payCalculator;
+
+    /**
+     * Résultat du traitement d'un employé.
+     */
+    public static final class Result {
+        private final String employee;
+        private final int entryCount;
+        private final TotalsReport totals;
+        private final PaySummary pay;
+        private final Exception error;
+
+        private Result(String employee, int entryCount, TotalsReport totals, PaySummary pay, Exception error) {
+            this.employee = employee;
+            this.entryCount = entryCount;
+            this.totals = totals;
+            this.pay = pay;
+            this.error = error;
+        }
+
+        public String getEmployee() {
+            return employee;
+        }
+
+        public int getEntryCount() {
+            return entryCount;
+        }
+
+        public long getTotalMinutes() {
+            return totals == null ? 0 : totals.getTotalMinutes();
+        }
+
+        /**
+         * @return totaux par jour, semaine, mois et année, ou null en cas d'erreur
+         */
+        public TotalsReport getTotals() {
+            return totals;
+        }
+
+        /**
+         * @return totaux de paie, ou null en cas d'erreur
+         */
+        public PaySummary getPay() {
+            return pay;
+        }
+
+        /**
+         * @return erreur rencontrée, ou null si le PDF a été généré
+         */
+        public Exception getError() {
+            return error;
+        }
+    }
+
+    /**
+     * @param inputDirectory répertoire contenant un sous-répertoire par employé
+     * @param outputDirectory répertoire des PDF générés
+     * @param threads nombre de traitements simultanés
+     */
+    public BatchExport(Path inputDirectory, Path outputDirectory, int threads) {
+        this(inputDirectory, outputDirectory, threads, PayRules.defaults());
+    }
+
+    /**
+     * @param inputDirectory répertoire contenant un sous-répertoire par employé
+     * @param outputDirectory répertoire des PDF générés
+     * @param threads nombre de traitements simultanés
+     * @param payRules règles de paie, compilées une seule fois pour tous les employés
+     */
+    public BatchExport(Path inputDirectory, Path outputDirectory, int threads, PayRules payRules) {
+        this.inputDirectory = inputDirectory;
+        this.outputDirectory = outputDirectory;
+        this.threads = threads;
+        this.payCalculator = payRules.compile();
+    }
+
+    /**
+     * Traite tous les employés du répertoire d'entrée.
+     * @return résultats par employé, triés par nom
+     * @throws IOException si les répertoires ne peuvent pas être lus ou créés
+     * @throws InterruptedException si le traitement est interrompu
+     */
+    public List<Result> run() throws IOException, InterruptedException {
+        Files.createDirectories(outputDirectory);
+        List<Path> sources;
+        try (Stream<Path> children = Files.list(inputDirectory)) {
+            sources = children.filter(p -> Files.isDirectory(p) || isCsv(p) || isArchive(p)).sorted().collect(Collectors.toList());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Result>> futures = new ArrayList<>(sources.size());
+            for (Path source : sources) {
+                futures.add(executor.submit(() -> process(source)));
+            }
+            List<Result> results = new ArrayList<>(futures.size());
+            for (Future<Result> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    // process() capture déjà ses erreurs : seule une erreur grave arrive ici
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Cumule les totaux des employés traités sans erreur.
+     * @param results résultats de {@link #run()}
+     * @return totaux de tous les employés
+     */
+    public static TotalsReport combine(List<Result> results) {
+        List<TotalsReport> reports = new ArrayList<>(results.size());
+        for (Result result : results) {
+            if (result.getTotals() != null) {
+                reports.add(result.getTotals());
+            }
+        }
+        return TotalsReport.combine(reports);
+    }
+
+    /**
+     * Calcule les totaux et génère le PDF d'un employé.
+     */
+    private Result process(Path source) {
+        String employee = source.getFileName().toString();
+        if (isCsv(source)) {
+            employee = employee.substring(0, employee.length() - CSV_EXTENSION.length());
+        } else if (isArchive(source)) {
+            employee = employee.substring(0, employee.length() - TimesheetArchive.EXTENSION.length());
+        }
+        try {
+            List<TimesheetEntry> entries;
+            if (isCsv(source)) {
+                entries = TimesheetCsvReader.read(source);
+            } else if (isArchive(source)) {
+                entries = TimesheetArchive.open(source).readAll();
+            } else {
+                entries = TimesheetStore.read(source);
+            }
+            // Colonnes triées par date : 8 octets par entrée, les entrées lues peuvent être libérées
+            TimesheetColumns columns = TimesheetColumns.of(entries);
+            entries = columns.asList();
+            TotalsReport report = ParallelTotalsEngine.aggregateSequential(columns);
+            PaySummary pay = payCalculator.summarize(columns);
+
+            TotalsAggregator totals = new TotalsAggregator();
+            totals.rebuild(entries);
+            Path pdf = outputDirectory.resolve(employee + ".pdf");
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(pdf), 64 * 1024)) {
+                new TimesheetPdfExporter().createPdf(entries, totals, out);
+            }
+            return new Result(employee, columns.size(), report, pay, null);
+        } catch (IOException | RuntimeException e) {
+            return new Result(employee, 0, null, null, e);
+        }
+    }
+
+    private static boolean isCsv(Path path) {
+        return Files.isRegularFile(path) && path.getFileName().toString().endsWith(CSV_EXTENSION);
+    }
+
+    private static boolean isArchive(Path path) {
+        return Files.isRegularFile(path) && path.getFileName().toString().endsWith(TimesheetArchive.EXTENSION);
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2 && !(args.length == 4 && "--threads".equals(args[2]))) {
+            System.err.println("Usage : BatchExport <répertoire d'entrée> <répertoire de sortie> [--threads N]");
+            System.exit(2);
+        }
+        int threads = args.length == 4 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        long start = System.nanoTime();
+        List<Result> results = new BatchExport(Path.of(args[0]), Path.of(args[1]), threads).run();
+        int failures = 0;
+        for (Result result : results) {
+            if (result.getError() == null) {
+                PaySummary pay = result.getPay();
+                System.out.println(result.getEmployee() + " : " + result.getEntryCount() + " entrées, "
+                        + HoursFormat.format(result.getTotalMinutes())
+                        + " (payé " + HoursFormat.format(pay.getPaidMinutes())
+                        + ", nuit " + HoursFormat.format(pay.getNightMinutes())
+                        + ", heures supplémentaires " + HoursFormat.format(pay.getOvertimeMinutes()) + ")");
+            } else {
+                failures++;
+                System.err.println(result.getEmployee() + " : échec (" + result.getError().getMessage() + ")");
+            }
+        }
+        TotalsReport all = combine(results);
+        System.out.println("Tous employés : " + HoursFormat.format(all.getTotalMinutes()) + " sur "
+                + all.getDays().length + " jours et " + all.getWeeks().length + " semaines");
+        System.out.println(results.size() + " employés traités en "
+                + (System.nanoTime() - start) / 1_000_000 + " ms, " + failures + " échec(s)");
+        System.exit(failures == 0 ? 0 : 1);
+    }
+}
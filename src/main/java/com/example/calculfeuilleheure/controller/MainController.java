@@ -1,34 +1,38 @@
 package com.example.calculfeuilleheure.controller;
 
+import com.example.calculfeuilleheure.io.TimesheetCsvReader;
+import com.example.calculfeuilleheure.io.TimesheetCsvWriter;
+import com.example.calculfeuilleheure.io.TimesheetImportException;
+import com.example.calculfeuilleheure.metrics.Metrics;
+import com.example.calculfeuilleheure.metrics.TimesheetEvents;
 import com.example.calculfeuilleheure.model.TimesheetEntry;
-import com.itextpdf.kernel.pdf.PdfDocument;
-import com.itextpdf.kernel.pdf.PdfWriter;
-import com.itextpdf.layout.Document;
-import com.itextpdf.layout.element.Paragraph;
-import com.itextpdf.layout.element.Table;
-import com.itextpdf.layout.element.Cell;
-import com.itextpdf.kernel.colors.DeviceRgb;
-import com.itextpdf.layout.properties.TextAlignment;
-import com.itextpdf.layout.properties.UnitValue;
-import com.itextpdf.kernel.events.PdfDocumentEvent;
-import com.itextpdf.kernel.events.IEventHandler;
-import com.itextpdf.kernel.events.Event;
-import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
-import com.itextpdf.kernel.geom.Rectangle;
-import com.itextpdf.kernel.pdf.PdfPage;
-import com.itextpdf.layout.Canvas;
-import java.time.LocalDateTime;
+import com.example.calculfeuilleheure.persistence.TimesheetStore;
+import com.example.calculfeuilleheure.service.PayRules;
+import com.example.calculfeuilleheure.service.PaySummary;
+import com.example.calculfeuilleheure.service.PayTotalsAggregator;
+import com.example.calculfeuilleheure.service.ShiftIndex;
+import com.example.calculfeuilleheure.service.TimesheetEditor;
+import com.example.calculfeuilleheure.service.TotalsAggregator;
+import com.example.calculfeuilleheure.util.HoursFormat;
+import com.example.calculfeuilleheure.util.HoursParser;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.concurrent.Task;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.stage.FileChooser;
+import javafx.util.Duration;
 
 import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.format.DateTimeFormatter;
-import java.util.Map;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Contrôleur principal de l'application.
@@ -66,83 +70,157 @@ public class MainController {
     @FXML
     private TableColumn<TimesheetEntry, String> totalWeeklyColumn;
 
+    @FXML
+    private TreeTableView<WeeklySummaryModel.SummaryRow> summaryTreeTable;
+
+    @FXML
+    private TreeTableColumn<WeeklySummaryModel.SummaryRow, String> summaryLabelColumn;
+
+    @FXML
+    private TreeTableColumn<WeeklySummaryModel.SummaryRow, String> summaryTotalColumn;
+
+    @FXML
+    private TreeTableColumn<WeeklySummaryModel.SummaryRow, String> summaryCountColumn;
+
+    @FXML
+    private Label paySummaryLabel;
+
+    @FXML
+    private Button generatePdfButton;
+
+    @FXML
+    private ProgressBar exportProgressBar;
+
+    @FXML
+    private Button cancelExportButton;
+
+    @FXML
+    private TitledPane diagnosticsPane;
+
+    @FXML
+    private Label diagnosticsLabel;
+
     private final ObservableList<TimesheetEntry> entries = FXCollections.observableArrayList();
 
     private final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
-    // Caches pour optimiser les calculs
-    private final Map<java.time.LocalDate, Double> dailyTotals = new HashMap<>();
-    private final Map<String, Double> weeklyTotals = new HashMap<>();
-    private final Map<java.time.LocalDate, Integer> dateCounts = new HashMap<>();
-    private final Map<String, java.time.LocalDate> weekMaxDates = new HashMap<>();
+    // Totaux maintenus de façon incrémentale à chaque changement de la liste
+    private final TotalsAggregator totals = new TotalsAggregator();
+
+    // Valeurs affichées dans le tableau, mémorisées par entrée
+    private final TimesheetRowCache rowCache = new TimesheetRowCache(totals, dateFormatter);
+
+    // Vue groupée par semaine et par jour, avec sous-totaux
+    private final WeeklySummaryModel weeklySummary = new WeeklySummaryModel(totals, dateFormatter);
+
+    // Intervalles des entrées, pour signaler les chevauchements à la saisie
+    private final ShiftIndex shiftIndex = new ShiftIndex();
+
+    // Règles de paie compilées une fois : nuit, pauses et heures supplémentaires
+    private final PayTotalsAggregator payTotals = new PayTotalsAggregator(PayRules.defaults().compile());
+
+    // Modifications groupées, notifiées en une seule fois
+    private final TimesheetEditor editor = new TimesheetEditor(entries);
+
+    // Enregistrement sur disque des entrées, null si indisponible
+    private TimesheetStore store;
+
+    // Fragments PDF des semaines déjà exportées, null sans enregistrement
+    private Path pdfCacheDirectory;
+
+    // Export PDF en cours, null si aucun
+    private Task<Void> exportTask;
+
+    // Rafraîchissement du panneau de diagnostics, actif seulement lorsqu'il est ouvert
+    private final Timeline diagnosticsTimeline = new Timeline(
+            new KeyFrame(Duration.seconds(1), event -> diagnosticsLabel.setText(Metrics.summary())));
 
     @FXML
     public void initialize() {
-        // Initialisation des colonnes du tableau
-        dateColumn.setCellValueFactory(cellData -> new javafx.beans.property.SimpleStringProperty(
-                cellData.getValue().getDate().format(dateFormatter)));
-        hoursColumn.setCellValueFactory(cellData -> new javafx.beans.property.SimpleStringProperty(
-                cellData.getValue().getHoursFormatted()));
-        endHoursColumn.setCellValueFactory(cellData -> new javafx.beans.property.SimpleStringProperty(
-                cellData.getValue().getEndHoursFormatted()));
-        workedHoursColumn.setCellValueFactory(cellData -> new javafx.beans.property.SimpleStringProperty(
-                cellData.getValue().getWorkedHoursFormatted()));
-
-        // Nouvelle colonne pour le total journalier
-        totalDailyColumn.setCellValueFactory(cellData -> {
-            TimesheetEntry entry = cellData.getValue();
-            Integer count = dateCounts.get(entry.getDate());
-            if (count != null && count > 1) {
-                Double total = dailyTotals.get(entry.getDate());
-                return new javafx.beans.property.SimpleStringProperty(
-                        TimesheetEntry.formatTotalHours(total != null ? total : 0.0));
+        // Initialisation des colonnes du tableau : valeurs mémorisées par entrée
+        dateColumn.setCellValueFactory(cellData -> rowCache.row(cellData.getValue()).dateProperty());
+        hoursColumn.setCellValueFactory(cellData -> rowCache.row(cellData.getValue()).hoursProperty());
+        endHoursColumn.setCellValueFactory(cellData -> rowCache.row(cellData.getValue()).endHoursProperty());
+        workedHoursColumn.setCellValueFactory(cellData -> rowCache.row(cellData.getValue()).workedHoursProperty());
+
+        // Total journalier, affiché lorsque plusieurs entrées partagent la date
+        totalDailyColumn.setCellValueFactory(cellData -> rowCache.row(cellData.getValue()).dailyTotalProperty());
+
+        // Total hebdomadaire, affiché sur la dernière date de la semaine
+        totalWeeklyColumn.setCellValueFactory(cellData -> rowCache.row(cellData.getValue()).weeklyTotalProperty());
+
+        // Vue par semaine : les jours d'une semaine sont créés à son ouverture
+        summaryLabelColumn.setCellValueFactory(cellData -> cellData.getValue().getValue().labelProperty());
+        summaryTotalColumn.setCellValueFactory(cellData -> cellData.getValue().getValue().totalProperty());
+        summaryCountColumn.setCellValueFactory(cellData -> cellData.getValue().getValue().countProperty());
+
+        // Le cache et la vue par semaine lisent les totaux : ils doivent être notifiés après l'agrégateur
+        totals.attach(entries);
+        rowCache.attach(entries);
+        weeklySummary.attach(entries);
+        shiftIndex.attach(entries);
+        payTotals.attach(entries);
+        tableView.setItems(entries);
+        summaryTreeTable.setRoot(weeklySummary.getRoot());
+        entries.addListener((ListChangeListener<TimesheetEntry>) change -> updatePaySummary());
+        updatePaySummary();
+        tableView.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+
+        diagnosticsTimeline.setCycleCount(Animation.INDEFINITE);
+        diagnosticsPane.expandedProperty().addListener((observable, wasExpanded, expanded) -> {
+            if (expanded) {
+                diagnosticsLabel.setText(Metrics.summary());
+                diagnosticsTimeline.play();
             } else {
-                return new javafx.beans.property.SimpleStringProperty("-");
+                diagnosticsTimeline.stop();
             }
         });
+    }
 
-        // Nouvelle colonne pour le total hebdomadaire
-        totalWeeklyColumn.setCellValueFactory(cellData -> {
-            TimesheetEntry entry = cellData.getValue();
-            String weekKey = entry.getWeekYear() + "-" + entry.getWeekNumber();
-            java.time.LocalDate maxDate = weekMaxDates.get(weekKey);
-            if (maxDate != null && entry.getDate().equals(maxDate)) {
-                Double total = weeklyTotals.get(weekKey);
-                String formatted = TimesheetEntry.formatTotalHours(total != null ? total : 0.0);
-                return new javafx.beans.property.SimpleStringProperty("Semaine " + entry.getWeekNumber() + ": " + formatted);
-            } else {
-                return new javafx.beans.property.SimpleStringProperty("");
-            }
-        });
+    /**
+     * Affiche les totaux de paie, maintenus par l'agrégateur au fil des modifications.
+     */
+    private void updatePaySummary() {
+        PaySummary pay = payTotals.getSummary();
+        paySummaryLabel.setText("Payé : " + HoursFormat.format(pay.getPaidMinutes())
+                + " (pauses déduites : " + HoursFormat.format(pay.getBreakMinutes())
+                + ")   Nuit : " + HoursFormat.format(pay.getNightMinutes())
+                + "   Heures supplémentaires : " + HoursFormat.format(pay.getOvertimeMinutes()));
+    }
 
-        tableView.setItems(entries);
+    /**
+     * Charge les entrées enregistrées puis enregistre chaque modification de la liste.
+     * En cas d'erreur, l'application continue sans enregistrement.
+     * @param directory répertoire des données
+     */
+    public void openStore(Path directory) {
+        TimesheetStore opened = new TimesheetStore(directory);
+        try {
+            entries.setAll(opened.load());
+        } catch (IOException e) {
+            showAlert("Erreur", "Impossible de charger les entrées enregistrées : " + e.getMessage());
+            return;
+        }
+        opened.setErrorHandler(e -> showAlert("Erreur", "Impossible d'enregistrer les modifications : " + e.getMessage()));
+        opened.attach(entries);
+        store = opened;
+        pdfCacheDirectory = directory.resolve("pdf-cache");
     }
 
     /**
-     * Met à jour les caches de totaux pour optimiser les calculs.
+     * Compacte et ferme l'enregistrement des entrées. Une erreur est signalée
+     * comme celles de l'enregistrement, avant la fermeture de l'application.
      */
-    private void updateTotals() {
-        dailyTotals.clear();
-        weeklyTotals.clear();
-        dateCounts.clear();
-        weekMaxDates.clear();
-
-        for (TimesheetEntry entry : entries) {
-            // Comptage par date
-            dateCounts.put(entry.getDate(), dateCounts.getOrDefault(entry.getDate(), 0) + 1);
-
-            // Total quotidien
-            dailyTotals.put(entry.getDate(), dailyTotals.getOrDefault(entry.getDate(), 0.0) + entry.getWorkedHours());
-
-            // Total hebdomadaire
-            String weekKey = entry.getWeekYear() + "-" + entry.getWeekNumber();
-            weeklyTotals.put(weekKey, weeklyTotals.getOrDefault(weekKey, 0.0) + entry.getWorkedHours());
-
-            // Date max par semaine
-            java.time.LocalDate currentMax = weekMaxDates.get(weekKey);
-            if (currentMax == null || entry.getDate().isAfter(currentMax)) {
-                weekMaxDates.put(weekKey, entry.getDate());
-            }
+    public void closeStore() {
+        if (store == null) {
+            return;
+        }
+        TimesheetStore closing = store;
+        store = null;
+        try {
+            closing.close();
+        } catch (IOException e) {
+            showAlert("Erreur", "Impossible d'enregistrer les modifications : " + e.getMessage());
         }
     }
 
@@ -157,41 +235,42 @@ public class MainController {
         }
         String hoursText = hoursField.getText();
         String endHoursText = endHoursField.getText();
-        double hours;
-        double endHours;
 
-        // Regex pour valider le format xxhyy (ex: 08h30)
-        if (!hoursText.matches("^\\d{1,2}h\\d{2}$")) {
+        // Validation et conversion en un seul passage (format xxhyy, ex: 08h30)
+        long parseStart = System.nanoTime();
+        TimesheetEvents.EntryParse parseEvent = new TimesheetEvents.EntryParse();
+        parseEvent.begin();
+        int startMinute = HoursParser.parse(hoursText);
+        int endMinute = HoursParser.parse(endHoursText);
+        parseEvent.valid = startMinute != HoursParser.INVALID && endMinute != HoursParser.INVALID;
+        parseEvent.commit();
+        Metrics.ENTRY_PARSE.recordSince(parseStart);
+
+        if (startMinute == HoursParser.INVALID) {
             showAlert("Erreur", "Veuillez entrer les heures au format 00h00 (ex: 08h30).");
             return;
         }
-        if (!endHoursText.matches("^\\d{1,2}h\\d{2}$")) {
+        if (endMinute == HoursParser.INVALID) {
             showAlert("Erreur", "Veuillez entrer l'heure de fin au format 00h00 (ex: 17h30).");
             return;
         }
+        // Le format accepte jusqu'à 99h59 ; un créneau de nuit se saisit avec une fin avant le début
+        if (!HoursParser.isTimeOfDay(startMinute) || !HoursParser.isTimeOfDay(endMinute)) {
+            showAlert("Erreur", "Les heures doivent être comprises entre 0h00 et 23h59 "
+                    + "(ex: 22h00 à 06h00 pour un travail de nuit).");
+            return;
+        }
 
-        try {
-            hours = TimesheetEntry.parseHours(hoursText);
-            if (hours < 0) {
-                showAlert("Erreur", "Le nombre d'heures doit être positif.");
-                return;
-            }
-            endHours = TimesheetEntry.parseHours(endHoursText);
-            if (endHours < 0) {
-                showAlert("Erreur", "L'heure de fin doit être positive.");
-                return;
-            }
-        } catch (NumberFormatException e) {
-            showAlert("Erreur", "Format des heures invalide.");
+        // Un créneau qui en chevauche un autre gonflerait les totaux : confirmation demandée
+        List<TimesheetEntry> overlapping = shiftIndex.overlapping(datePicker.getValue(), startMinute, endMinute);
+        if (!overlapping.isEmpty() && !confirmOverlap(overlapping)) {
             return;
         }
 
-        TimesheetEntry entry = new TimesheetEntry(datePicker.getValue(), hours, endHours);
+        TimesheetEntry entry = TimesheetEntry.ofMinutes(datePicker.getValue(), startMinute, endMinute);
+        // Les totaux sont mis à jour par l'agrégateur à l'ajout dans la liste
         entries.add(entry);
 
-        // Mettre à jour les totaux
-        updateTotals();
-
         // Réinitialiser les champs (conserver la date)
         hoursField.clear();
         endHoursField.clear();
@@ -200,170 +279,212 @@ public class MainController {
 
 
     /**
-     * Génère un fichier PDF avec les entrées de la feuille d'heure.
+     * Importe les entrées d'un fichier CSV (date;début;fin).
+     * Le fichier est lu en arrière-plan puis ajouté en une seule modification de la liste,
+     * ce qui ne déclenche qu'une mise à jour des totaux et qu'un enregistrement.
      */
     @FXML
-    public void handleGeneratePdf() {
+    public void handleImportCsv() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Importer une feuille d'heure CSV");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Fichiers CSV", "*.csv"));
+        File file = fileChooser.showOpenDialog(tableView.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+
+        Task<List<TimesheetEntry>> task = new Task<>() {
+            @Override
+            protected List<TimesheetEntry> call() throws IOException {
+                return TimesheetCsvReader.read(file.toPath());
+            }
+        };
+        task.setOnSucceeded(event -> {
+            List<TimesheetEntry> imported = task.getValue();
+            editor.addAll(imported);
+            showAlert("Succès", imported.size() + " entrée(s) importée(s).");
+        });
+        task.setOnFailed(event -> {
+            if (task.getException() instanceof TimesheetImportException) {
+                showAlert("Erreur", "Fichier CSV invalide. " + task.getException().getMessage());
+            } else {
+                showAlert("Erreur", "Impossible de lire le fichier CSV.");
+            }
+        });
+
+        Thread thread = new Thread(task, "csv-import");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Exporte les entrées dans un fichier CSV (date;début;fin).
+     */
+    @FXML
+    public void handleExportCsv() {
         if (entries.isEmpty()) {
             showAlert("Erreur", "Aucune entrée à exporter.");
             return;
         }
 
         FileChooser fileChooser = new FileChooser();
-        fileChooser.setTitle("Enregistrer la feuille d'heure en PDF");
-        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Fichiers PDF", "*.pdf"));
+        fileChooser.setTitle("Exporter la feuille d'heure en CSV");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Fichiers CSV", "*.csv"));
         File file = fileChooser.showSaveDialog(tableView.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
 
-        if (file != null) {
-            try {
-                createPdf(file.getAbsolutePath());
-                showAlert("Succès", "PDF généré avec succès.");
-            } catch (FileNotFoundException e) {
-                showAlert("Erreur", "Impossible de créer le fichier PDF.");
-            }
+        try {
+            TimesheetCsvWriter.write(entries, file.toPath());
+            showAlert("Succès", "Fichier CSV créé avec succès.");
+        } catch (IOException e) {
+            showAlert("Erreur", "Impossible de créer le fichier CSV.");
         }
     }
 
     /**
-     * Gestionnaire d'événement pour ajouter un pied de page avec numéro de page.
+     * Génère un fichier PDF avec les entrées de la feuille d'heure.
      */
-    private static class FooterEventHandler implements IEventHandler {
-        @Override
-        public void handleEvent(Event event) {
-            PdfDocumentEvent docEvent = (PdfDocumentEvent) event;
-            PdfDocument pdfDoc = docEvent.getDocument();
-            PdfPage page = docEvent.getPage();
-            Rectangle pageSize = page.getPageSize();
-            PdfCanvas pdfCanvas = new PdfCanvas(page.newContentStreamBefore(), page.getResources(), pdfDoc);
-            Canvas canvas = new Canvas(pdfCanvas, pageSize);
-            canvas.setFontSize(10);
-            canvas.showTextAligned("Page " + pdfDoc.getPageNumber(page) + " / " + pdfDoc.getNumberOfPages(),
-                    pageSize.getWidth() / 2, 20, TextAlignment.CENTER);
+    @FXML
+    public void handleGeneratePdf() {
+        if (entries.isEmpty()) {
+            showAlert("Erreur", "Aucune entrée à exporter.");
+            return;
+        }
+
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Enregistrer la feuille d'heure en PDF");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Fichiers PDF", "*.pdf"));
+        File file = fileChooser.showSaveDialog(tableView.getScene().getWindow());
+
+        if (file != null) {
+            startPdfExport(file);
         }
     }
 
     /**
-     * Crée le PDF avec les données de la feuille d'heure.
-     * @param dest chemin du fichier PDF à créer
-     * @throws FileNotFoundException si le fichier ne peut pas être créé
+     * Lance l'export PDF en arrière-plan sur une copie des entrées, avec suivi
+     * de l'avancement dans la barre de progression et possibilité d'annulation.
+     * @param file fichier PDF à créer
      */
-    private void createPdf(String dest) throws FileNotFoundException {
-        PdfWriter writer = new PdfWriter(dest);
-        PdfDocument pdf = new PdfDocument(writer);
-        Document document = new Document(pdf);
-        document.setMargins(36, 36, 36, 36); // Marges de 36 points (0.5 pouce)
-
-        // Ajouter le gestionnaire de pied de page
-        pdf.addEventHandler(PdfDocumentEvent.END_PAGE, new FooterEventHandler());
-
-        // En-tête
-        Paragraph header = new Paragraph("Feuille d'heure")
-                .setBold()
-                .setFontSize(18)
-                .setTextAlignment(TextAlignment.CENTER)
-                .setMarginBottom(10);
-        document.add(header);
-
-        String generatedDate = LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"));
-        Paragraph subHeader = new Paragraph("Généré le " + generatedDate)
-                .setFontSize(10)
-                .setTextAlignment(TextAlignment.CENTER)
-                .setMarginBottom(20);
-        document.add(subHeader);
-
-        // Tableau stylisé
-        float[] columnWidths = {200F, 100F, 100F, 100F, 150F, 200F};
-        Table table = new Table(UnitValue.createPercentArray(columnWidths)).useAllAvailableWidth();
-        table.setMarginBottom(20);
-
-        // En-têtes avec style
-        String[] headers = {"Date", "Heures", "Heure de fin", "Heures travaillées", "Total journalier", "Total hebdomadaire"};
-        for (String headerText : headers) {
-            Cell headerCell = new Cell().add(new Paragraph(headerText).setBold())
-                    .setBackgroundColor(new DeviceRgb(200, 200, 200))
-                    .setTextAlignment(TextAlignment.CENTER)
-                    .setPadding(5);
-            table.addHeaderCell(headerCell);
-        }
-
-        // Données
-        for (TimesheetEntry entry : entries) {
-            table.addCell(createCell(entry.getDate().format(dateFormatter)));
-            table.addCell(createCell(entry.getHoursFormatted()));
-            table.addCell(createCell(entry.getEndHoursFormatted()));
-            table.addCell(createCell(entry.getWorkedHoursFormatted()));
-
-            // Ajouter le total journalier dans le PDF
-            Integer count = dateCounts.get(entry.getDate());
-            if (count != null && count > 1) {
-                Double total = dailyTotals.get(entry.getDate());
-                table.addCell(createCell(TimesheetEntry.formatTotalHours(total != null ? total : 0.0)));
-            } else {
-                table.addCell(createCell("-"));
-            }
+    private void startPdfExport(File file) {
+        List<TimesheetEntry> snapshot = new ArrayList<>(entries);
+        Task<Void> task = new PdfExportTask(snapshot, pdfCacheDirectory, file);
 
-            // Ajouter le total hebdomadaire dans le PDF
-            String weekKey = entry.getWeekYear() + "-" + entry.getWeekNumber();
-            java.time.LocalDate maxDate = weekMaxDates.get(weekKey);
-            if (maxDate != null && entry.getDate().equals(maxDate)) {
-                Double total = weeklyTotals.get(weekKey);
-                String formatted = TimesheetEntry.formatTotalHours(total != null ? total : 0.0);
-                table.addCell(createCell("Semaine " + entry.getWeekNumber() + ": " + formatted));
+        task.setOnSucceeded(event -> {
+            endPdfExport();
+            showAlert("Succès", "PDF généré avec succès.");
+        });
+        task.setOnFailed(event -> {
+            endPdfExport();
+            if (task.getException() instanceof IOException) {
+                showAlert("Erreur", "Impossible de créer le fichier PDF.");
             } else {
-                table.addCell(createCell(""));
+                showAlert("Erreur", "Erreur lors de la génération du PDF : " + task.getException().getMessage());
             }
-        }
-
-        document.add(table);
+        });
+        task.setOnCancelled(event -> {
+            endPdfExport();
+            showAlert("Information", "Génération du PDF annulée.");
+        });
 
-        // Résumé des heures totales
-        double totalHours = entries.stream().mapToDouble(TimesheetEntry::getWorkedHours).sum();
-        Paragraph summary = new Paragraph("Total des heures travaillées : " + TimesheetEntry.formatTotalHours(totalHours))
-                .setBold()
-                .setFontSize(12)
-                .setTextAlignment(TextAlignment.RIGHT)
-                .setMarginTop(20);
-        document.add(summary);
+        exportTask = task;
+        exportProgressBar.progressProperty().bind(task.progressProperty());
+        setExportControlsVisible(true);
 
-        document.close();
+        Thread thread = new Thread(task, "pdf-export");
+        thread.setDaemon(true);
+        thread.start();
     }
 
     /**
-     * Crée une cellule stylisée pour le tableau.
-     * @param text texte de la cellule
-     * @return cellule stylisée
+     * Annule la génération du PDF en cours.
      */
-    private Cell createCell(String text) {
-        return new Cell().add(new Paragraph(text))
-                .setTextAlignment(TextAlignment.CENTER)
-                .setPadding(3);
+    @FXML
+    public void handleCancelExport() {
+        if (exportTask != null) {
+            exportTask.cancel();
+        }
+    }
+
+    private void endPdfExport() {
+        exportProgressBar.progressProperty().unbind();
+        setExportControlsVisible(false);
+        exportTask = null;
+    }
+
+    private void setExportControlsVisible(boolean visible) {
+        exportProgressBar.setVisible(visible);
+        cancelExportButton.setVisible(visible);
+        generatePdfButton.setDisable(visible);
     }
 
     /**
-     * Supprime l'entrée sélectionnée après confirmation.
+     * Supprime les entrées sélectionnées après confirmation, en une seule modification.
      */
     @FXML
     public void handleDeleteEntry() {
-        TimesheetEntry selectedEntry = tableView.getSelectionModel().getSelectedItem();
-        if (selectedEntry == null) {
+        List<TimesheetEntry> selection = new ArrayList<>(tableView.getSelectionModel().getSelectedItems());
+        if (selection.isEmpty()) {
             showAlert("Erreur", "Veuillez sélectionner une entrée à supprimer.");
             return;
         }
 
         Alert confirmDialog = new Alert(Alert.AlertType.CONFIRMATION);
         confirmDialog.setTitle("Confirmation de suppression");
-        confirmDialog.setHeaderText("Supprimer l'entrée ?");
-        confirmDialog.setContentText("Voulez-vous vraiment supprimer l'entrée du " + 
-            selectedEntry.getDate().format(dateFormatter) + " ?\nCette action est irréversible.");
+        if (selection.size() == 1) {
+            confirmDialog.setHeaderText("Supprimer l'entrée ?");
+            confirmDialog.setContentText("Voulez-vous vraiment supprimer l'entrée du " +
+                selection.get(0).getDate().format(dateFormatter) + " ?\nCette action est irréversible.");
+        } else {
+            confirmDialog.setHeaderText("Supprimer les entrées ?");
+            confirmDialog.setContentText("Voulez-vous vraiment supprimer les " + selection.size() +
+                " entrées sélectionnées ?\nCette action est irréversible.");
+        }
 
         confirmDialog.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                entries.remove(selectedEntry);
-                updateTotals();
+                tableView.getSelectionModel().clearSelection();
+                editor.removeAll(selection);
             }
         });
     }
 
+    /**
+     * Copie la semaine de l'entrée sélectionnée vers la semaine suivante.
+     */
+    @FXML
+    public void handleDuplicateWeek() {
+        TimesheetEntry selectedEntry = tableView.getSelectionModel().getSelectedItem();
+        if (selectedEntry == null) {
+            showAlert("Erreur", "Veuillez sélectionner une entrée de la semaine à dupliquer.");
+            return;
+        }
+        int copied = editor.duplicateWeek(selectedEntry.getDate(), selectedEntry.getDate().plusWeeks(1));
+        showAlert("Succès", copied + " entrée(s) copiée(s) vers la semaine suivante.");
+    }
+
+    /**
+     * Demande confirmation avant d'ajouter une entrée qui en chevauche d'autres.
+     * @param overlapping entrées chevauchées
+     * @return true si l'entrée doit quand même être ajoutée
+     */
+    private boolean confirmOverlap(List<TimesheetEntry> overlapping) {
+        StringBuilder message = new StringBuilder("Ce créneau chevauche :");
+        for (TimesheetEntry other : overlapping) {
+            message.append("\n").append(other.getDate().format(dateFormatter)).append(" ")
+                    .append(other.getHoursFormatted()).append(" - ").append(other.getEndHoursFormatted());
+        }
+        message.append("\nAjouter quand même ?");
+
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
+        alert.setTitle("Chevauchement");
+        alert.setHeaderText(null);
+        alert.setContentText(message.toString());
+        return alert.showAndWait().filter(button -> button == ButtonType.OK).isPresent();
+    }
+
     /**
      * Affiche une boîte de dialogue d'alerte.
      * @param title titre de la fenêtre
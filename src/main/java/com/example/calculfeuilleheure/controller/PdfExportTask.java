@@ -0,0 +1,76 @@
+package com.example.calculfeuilleheure.controller;
+
+import com.example.calculfeuilleheure.export.IncrementalPdfExporter;
+import com.example.calculfeuilleheure.export.TimesheetPdfExporter;
+import com.example.calculfeuilleheure.model.TimesheetEntry;
+import com.example.calculfeuilleheure.service.TotalsAggregator;
+import javafx.concurrent.Task;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Export PDF en arrière-plan d'une copie des entrées.
+ * <p>
+ * Seule classe de l'interface à utiliser les exporteurs : iText n'est chargé
+ * qu'au premier export, et non au démarrage de l'application.
+ */
+class PdfExportTask extends Task<Void> {
+
+    private final List<TimesheetEntry> snapshot;
+    private final Path cacheDirectory;
+    private final File file;
+
+    /**
+     * @param snapshot copie des entrées à exporter
+     * @param cacheDirectory répertoire des fragments de l'export incrémental, null pour un export complet
+     * @param file fichier PDF à créer
+     */
+    PdfExportTask(List<TimesheetEntry> snapshot, Path cacheDirectory, File file) {
+        this.snapshot = snapshot;
+        this.cacheDirectory = cacheDirectory;
+        this.file = file;
+    }
+
+    @Override
+    protected Void call() throws Exception {
+        // Totaux recalculés sur la copie : ceux de l'interface peuvent changer pendant l'export
+        TotalsAggregator snapshotTotals = new TotalsAggregator();
+        snapshotTotals.rebuild(snapshot);
+
+        TimesheetPdfExporter.ProgressListener progress = new TimesheetPdfExporter.ProgressListener() {
+            @Override
+            public void onProgress(int rowsWritten) {
+                updateProgress(rowsWritten, snapshot.size());
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return PdfExportTask.this.isCancelled();
+            }
+        };
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file), 64 * 1024)) {
+            if (cacheDirectory != null) {
+                // Seules les semaines modifiées depuis le dernier export sont mises en page
+                IncrementalPdfExporter exporter = new IncrementalPdfExporter(cacheDirectory);
+                exporter.setProgressListener(progress);
+                exporter.createPdf(snapshot, snapshotTotals, out);
+            } else {
+                TimesheetPdfExporter exporter = new TimesheetPdfExporter();
+                exporter.setProgressListener(progress);
+                exporter.createPdf(snapshot, snapshotTotals, out);
+            }
+        } catch (CancellationException e) {
+            // Le flux est déjà fermé : on supprime le fichier incomplet
+            Files.deleteIfExists(file.toPath());
+            throw e;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.calculfeuilleheure.controller;
+
+import com.example.calculfeuilleheure.metrics.Metrics;
+import com.example.calculfeuilleheure.model.TimesheetEntry;
+import com.example.calculfeuilleheure.service.TotalsAggregator;
+import javafx.beans.property.ReadOnlyStringProperty;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Valeurs affichées dans le tableau, mémorisées par entrée.
+ * <p>
+ * Une ligne est créée à la première demande d'une cellule de l'entrée, puis
+ * réutilisée : le défilement ne formate ni n'alloue plus rien. Les colonnes
+ * de l'entrée elle-même (date, heures) ne changent pas, les entrées étant
+ * remplacées plutôt que modifiées ; les colonnes de totaux sont mises à jour
+ * lorsqu'un changement de la liste touche la semaine de l'entrée.
+ * <p>
+ * Le cache doit être attaché à la liste après le {@link TotalsAggregator},
+ * afin de lire des totaux déjà à jour.
+ */
+final class TimesheetRowCache implements ListChangeListener<TimesheetEntry> {
+
+    private final TotalsAggregator totals;
+    private final DateTimeFormatter dateFormatter;
+
+    private final Map<TimesheetEntry, Row> rows = new IdentityHashMap<>();
+
+    // Lignes créées, par semaine (clé année-semaine compactée)
+    private final Map<Integer, List<Row>> rowsByWeek = new HashMap<>();
+
+    /**
+     * Valeurs affichées pour une entrée.
+     */
+    final class Row {
+        private final TimesheetEntry entry;
+        private final int yearWeek;
+        private final ReadOnlyStringWrapper date;
+        private final ReadOnlyStringWrapper hours;
+        private final ReadOnlyStringWrapper endHours;
+        private final ReadOnlyStringWrapper workedHours;
+        private final ReadOnlyStringWrapper dailyTotal = new ReadOnlyStringWrapper();
+        private final ReadOnlyStringWrapper weeklyTotal = new ReadOnlyStringWrapper();
+
+        private Row(TimesheetEntry entry) {
+            this.entry = entry;
+            this.yearWeek = entry.getYearWeek();
+            this.date = new ReadOnlyStringWrapper(entry.getDate().format(dateFormatter));
+            this.hours = new ReadOnlyStringWrapper(entry.getHoursFormatted());
+            this.endHours = new ReadOnlyStringWrapper(entry.getEndHoursFormatted());
+            this.workedHours = new ReadOnlyStringWrapper(entry.getWorkedHoursFormatted());
+            refreshTotals();
+        }
+
+        /**
+         * Recalcule les colonnes de totaux ; les cellules ne sont notifiées
+         * que si le texte change.
+         */
+        private void refreshTotals() {
+            dailyTotal.set(totals.isPartOfGroup(entry)
+                    ? TimesheetEntry.formatTotalMinutes(totals.getDailyTotal(entry.getEpochDay()))
+                    : "-");
+            weeklyTotal.set(totals.isLastInWeek(entry) ? totals.formatWeeklyTotal(entry) : "");
+        }
+
+        ReadOnlyStringProperty dateProperty() {
+            return date.getReadOnlyProperty();
+        }
+
+        ReadOnlyStringProperty hoursProperty() {
+            return hours.getReadOnlyProperty();
+        }
+
+        ReadOnlyStringProperty endHoursProperty() {
+            return endHours.getReadOnlyProperty();
+        }
+
+        ReadOnlyStringProperty workedHoursProperty() {
+            return workedHours.getReadOnlyProperty();
+        }
+
+        ReadOnlyStringProperty dailyTotalProperty() {
+            return dailyTotal.getReadOnlyProperty();
+        }
+
+        ReadOnlyStringProperty weeklyTotalProperty() {
+            return weeklyTotal.getReadOnlyProperty();
+        }
+    }
+
+    /**
+     * @param totals totaux lus pour les colonnes de totaux
+     * @param dateFormatter format de la colonne date
+     */
+    TimesheetRowCache(TotalsAggregator totals, DateTimeFormatter dateFormatter) {
+        this.totals = totals;
+        this.dateFormatter = dateFormatter;
+    }
+
+    /**
+     * Attache le cache à la liste affichée.
+     * @param entries liste observable des entrées, déjà suivie par l'agrégateur
+     */
+    void attach(ObservableList<TimesheetEntry> entries) {
+        entries.addListener(this);
+    }
+
+    /**
+     * @param entry entrée affichée
+     * @return valeurs affichées pour l'entrée, créées à la première demande
+     */
+    Row row(TimesheetEntry entry) {
+        Row row = rows.get(entry);
+        if (row != null) {
+            Metrics.ROW_CACHE_HITS.increment();
+            return row;
+        }
+        long start = System.nanoTime();
+        row = new Row(entry);
+        rows.put(entry, row);
+        rowsByWeek.computeIfAbsent(row.yearWeek, w -> new ArrayList<>()).add(row);
+        Metrics.ROW_CACHE_MISSES.increment();
+        Metrics.ROW_BUILD.recordSince(start);
+        return row;
+    }
+
+    /**
+     * @return nombre de lignes mémorisées
+     */
+    int size() {
+        return rows.size();
+    }
+
+    @Override
+    public void onChanged(Change<? extends TimesheetEntry> change) {
+        Set<Integer> weeks = new HashSet<>();
+        while (change.next()) {
+            if (change.wasPermutated()) {
+                continue;
+            }
+            if (change.wasUpdated()) {
+                // Entrée modifiée sur place : sa ligne est recréée à la prochaine demande
+                for (int i = change.getFrom(); i < change.getTo(); i++) {
+                    TimesheetEntry entry = change.getList().get(i);
+                    discard(entry, weeks);
+                    weeks.add(entry.getYearWeek());
+                }
+                continue;
+            }
+            for (TimesheetEntry removed : change.getRemoved()) {
+                discard(removed, weeks);
+            }
+            for (TimesheetEntry added : change.getAddedSubList()) {
+                weeks.add(added.getYearWeek());
+            }
+        }
+        for (Integer week : weeks) {
+            List<Row> weekRows = rowsByWeek.get(week);
+            if (weekRows != null) {
+                for (Row row : weekRows) {
+                    row.refreshTotals();
+                }
+            }
+        }
+    }
+
+    private void discard(TimesheetEntry entry, Set<Integer> weeks) {
+        Row row = rows.get(entry);
+        if (row == null) {
+            weeks.add(entry.getYearWeek());
+            return;
+        }
+        weeks.add(row.yearWeek);
+        // Une même entrée peut figurer plusieurs fois dans la liste : la ligne est partagée
+        // et sera recréée si l'entrée est encore présente
+        rows.remove(entry);
+        List<Row> weekRows = rowsByWeek.get(row.yearWeek);
+        weekRows.remove(row);
+        if (weekRows.isEmpty()) {
+            rowsByWeek.remove(row.yearWeek);
+        }
+    }
+}
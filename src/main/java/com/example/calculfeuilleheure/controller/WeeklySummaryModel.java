@@ -0,0 +1,278 @@
+package com.example.calculfeuilleheure.controller;
+
+import com.example.calculfeuilleheure.model.TimesheetEntry;
+import com.example.calculfeuilleheure.service.TotalsAggregator;
+import javafx.beans.property.ReadOnlyStringProperty;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.scene.control.TreeItem;
+
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Vue groupée des entrées par semaine puis par jour, pour un {@code TreeTableView}.
+ * <p>
+ * Les nœuds de semaine sont maintenus triés sous la racine et portent leur
+ * sous-total, lu dans le {@link TotalsAggregator} et mis à jour uniquement pour
+ * les semaines touchées par un changement de la liste. Les jours et les
+ * entrées d'une semaine ne sont créés qu'à la première ouverture du nœud :
+ * parcourir des années de données ne crée que les groupes affichés.
+ * <p>
+ * Le modèle doit être attaché à la liste après l'agrégateur.
+ */
+final class WeeklySummaryModel implements ListChangeListener<TimesheetEntry> {
+
+    private final TotalsAggregator totals;
+    private final DateTimeFormatter dateFormatter;
+
+    private final TreeItem<SummaryRow> root = new TreeItem<>(new SummaryRow("", ""));
+
+    // Entrées de chaque semaine, dans l'ordre d'ajout
+    private final Map<Integer, List<TimesheetEntry>> entriesByWeek = new HashMap<>();
+    private final Map<Integer, WeekItem> weekItems = new HashMap<>();
+
+    /**
+     * Ligne affichée : libellé, total en heures et nombre d'entrées.
+     */
+    static final class SummaryRow {
+        private final ReadOnlyStringWrapper label;
+        private final ReadOnlyStringWrapper total;
+        private final ReadOnlyStringWrapper count = new ReadOnlyStringWrapper("");
+
+        private SummaryRow(String label, String total) {
+            this.label = new ReadOnlyStringWrapper(label);
+            this.total = new ReadOnlyStringWrapper(total);
+        }
+
+        ReadOnlyStringProperty labelProperty() {
+            return label.getReadOnlyProperty();
+        }
+
+        ReadOnlyStringProperty totalProperty() {
+            return total.getReadOnlyProperty();
+        }
+
+        ReadOnlyStringProperty countProperty() {
+            return count.getReadOnlyProperty();
+        }
+    }
+
+    /**
+     * Nœud d'une semaine ; ses jours sont créés à la première demande.
+     */
+    final class WeekItem extends TreeItem<SummaryRow> {
+        private final int yearWeek;
+        private boolean loaded;
+
+        private WeekItem(int yearWeek) {
+            super(new SummaryRow("Semaine " + Math.floorMod(yearWeek, 100) + " - " + Math.floorDiv(yearWeek, 100), ""));
+            this.yearWeek = yearWeek;
+        }
+
+        @Override
+        public boolean isLeaf() {
+            return false;
+        }
+
+        @Override
+        public ObservableList<TreeItem<SummaryRow>> getChildren() {
+            if (!loaded) {
+                loaded = true;
+                super.getChildren().setAll(buildDays(yearWeek));
+            }
+            return super.getChildren();
+        }
+
+        /**
+         * @return true si les jours de la semaine ont été créés
+         */
+        boolean isLoaded() {
+            return loaded;
+        }
+
+        private void refresh() {
+            List<TimesheetEntry> entries = entriesByWeek.get(yearWeek);
+            getValue().total.set(TimesheetEntry.formatTotalMinutes(totals.getWeeklyTotal(yearWeek)));
+            getValue().count.set(describeCount(entries.size()));
+            if (loaded) {
+                // Jours reconstruits en conservant ceux qui étaient ouverts
+                Set<String> expanded = new HashSet<>();
+                for (TreeItem<SummaryRow> day : super.getChildren()) {
+                    if (day.isExpanded()) {
+                        expanded.add(day.getValue().label.get());
+                    }
+                }
+                List<TreeItem<SummaryRow>> days = buildDays(yearWeek);
+                for (TreeItem<SummaryRow> day : days) {
+                    day.setExpanded(expanded.contains(day.getValue().label.get()));
+                }
+                super.getChildren().setAll(days);
+            }
+        }
+    }
+
+    /**
+     * @param totals totaux journaliers et hebdomadaires
+     * @param dateFormatter format des dates des nœuds de jour
+     */
+    WeeklySummaryModel(TotalsAggregator totals, DateTimeFormatter dateFormatter) {
+        this.totals = totals;
+        this.dateFormatter = dateFormatter;
+        root.setExpanded(true);
+    }
+
+    /**
+     * Construit les semaines à partir des entrées actuelles puis suit les changements de la liste.
+     * @param entries liste observable des entrées, déjà suivie par l'agrégateur
+     */
+    void attach(ObservableList<TimesheetEntry> entries) {
+        Set<Integer> weeks = new HashSet<>();
+        for (TimesheetEntry entry : entries) {
+            weeks.add(addEntry(entry));
+        }
+        refreshWeeks(weeks);
+        entries.addListener(this);
+    }
+
+    /**
+     * @return racine (non affichée) dont les enfants sont les semaines, triées
+     */
+    TreeItem<SummaryRow> getRoot() {
+        return root;
+    }
+
+    @Override
+    public void onChanged(Change<? extends TimesheetEntry> change) {
+        Set<Integer> weeks = new HashSet<>();
+        while (change.next()) {
+            if (change.wasPermutated() || change.wasUpdated()) {
+                // Réordonnancement ou modification sur place : semaines reconstruites entièrement
+                rebuild(change.getList());
+                return;
+            }
+            for (TimesheetEntry removed : change.getRemoved()) {
+                weeks.add(removeEntry(removed));
+            }
+            for (TimesheetEntry added : change.getAddedSubList()) {
+                weeks.add(addEntry(added));
+            }
+        }
+        refreshWeeks(weeks);
+    }
+
+    private void rebuild(List<? extends TimesheetEntry> entries) {
+        entriesByWeek.clear();
+        weekItems.clear();
+        root.getChildren().clear();
+        Set<Integer> weeks = new HashSet<>();
+        for (TimesheetEntry entry : entries) {
+            weeks.add(addEntry(entry));
+        }
+        refreshWeeks(weeks);
+    }
+
+    private int addEntry(TimesheetEntry entry) {
+        int week = entry.getYearWeek();
+        entriesByWeek.computeIfAbsent(week, w -> new ArrayList<>()).add(entry);
+        return week;
+    }
+
+    private int removeEntry(TimesheetEntry entry) {
+        int week = entry.getYearWeek();
+        List<TimesheetEntry> entries = entriesByWeek.get(week);
+        if (entries != null) {
+            // Suppression par identité : les entrées ne redéfinissent pas equals()
+            for (int i = entries.size() - 1; i >= 0; i--) {
+                if (entries.get(i) == entry) {
+                    entries.remove(i);
+                    break;
+                }
+            }
+            if (entries.isEmpty()) {
+                entriesByWeek.remove(week);
+            }
+        }
+        return week;
+    }
+
+    /**
+     * Crée, met à jour ou supprime les nœuds des semaines touchées.
+     */
+    private void refreshWeeks(Set<Integer> weeks) {
+        for (int week : weeks) {
+            WeekItem item = weekItems.get(week);
+            if (!entriesByWeek.containsKey(week)) {
+                if (item != null) {
+                    weekItems.remove(week);
+                    root.getChildren().remove(indexOf(week));
+                }
+                continue;
+            }
+            if (item == null) {
+                item = new WeekItem(week);
+                weekItems.put(week, item);
+                root.getChildren().add(-indexOf(week) - 1, item);
+            }
+            item.refresh();
+        }
+    }
+
+    /**
+     * Recherche dichotomique d'une semaine parmi les enfants de la racine.
+     * @return indice de la semaine, ou {@code -(point d'insertion) - 1} si absente
+     */
+    private int indexOf(int week) {
+        List<TreeItem<SummaryRow>> children = root.getChildren();
+        int low = 0;
+        int high = children.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int key = ((WeekItem) children.get(middle)).yearWeek;
+            if (key < week) {
+                low = middle + 1;
+            } else if (key > week) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Crée les nœuds de jour d'une semaine, avec leurs entrées.
+     */
+    private List<TreeItem<SummaryRow>> buildDays(int week) {
+        List<TimesheetEntry> entries = new ArrayList<>(entriesByWeek.getOrDefault(week, List.of()));
+        entries.sort((a, b) -> a.getDate().compareTo(b.getDate()));
+
+        List<TreeItem<SummaryRow>> days = new ArrayList<>();
+        TreeItem<SummaryRow> day = null;
+        int currentDay = Integer.MIN_VALUE;
+        for (TimesheetEntry entry : entries) {
+            if (entry.getEpochDay() != currentDay) {
+                currentDay = entry.getEpochDay();
+                SummaryRow row = new SummaryRow(entry.getDate().format(dateFormatter),
+                        TimesheetEntry.formatTotalMinutes(totals.getDailyTotal(currentDay)));
+                row.count.set(describeCount(totals.getDateCount(currentDay)));
+                day = new TreeItem<>(row);
+                days.add(day);
+            }
+            day.getChildren().add(new TreeItem<>(new SummaryRow(
+                    entry.getHoursFormatted() + " - " + entry.getEndHoursFormatted(),
+                    entry.getWorkedHoursFormatted())));
+        }
+        return days;
+    }
+
+    private static String describeCount(int count) {
+        return count == 1 ? "1 entrée" : count + " entrées";
+    }
+}
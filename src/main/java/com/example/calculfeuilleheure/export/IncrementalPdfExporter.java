@@ -0,0 +1,323 @@
+package com.example.calculfeuilleheure.export;
+
+import com.example.calculfeuilleheure.metrics.Metrics;
+import com.example.calculfeuilleheure.metrics.TimesheetEvents;
+import com.example.calculfeuilleheure.model.TimesheetEntry;
+import com.example.calculfeuilleheure.service.TotalsAggregator;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.borders.Border;
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Image;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.layout.LayoutArea;
+import com.itextpdf.layout.layout.LayoutContext;
+import com.itextpdf.layout.layout.LayoutResult;
+import com.itextpdf.layout.renderer.IRenderer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Export PDF incrémental : les lignes de chaque semaine ISO sont rendues une
+ * fois dans un fragment PDF conservé sur disque, puis réutilisées tant que
+ * les entrées de la semaine ne changent pas.
+ * <p>
+ * Chaque semaine est identifiée par une empreinte de ses entrées (date,
+ * début, fin, dans l'ordre). Le document final est assemblé en plaçant chaque
+ * fragment, copié comme XObject de formulaire, dans une ligne du tableau
+ * dont les en-têtes sont répétés sur chaque page ; seules les semaines dont
+ * l'empreinte a changé sont de nouveau mises en page. Le titre, le résumé et
+ * les pieds de page sont toujours recalculés.
+ * <p>
+ * Les lignes sont écrites dans l'ordre fourni, comme {@link TimesheetPdfExporter} :
+ * un fragment couvre une suite d'entrées consécutives de la même semaine. Si
+ * la liste n'est pas chronologique, une semaine peut ainsi être répartie sur
+ * plusieurs fragments, dont l'empreinte inclut alors toutes les entrées de la
+ * semaine puisque ses totaux en dépendent. Une suite trop longue pour tenir
+ * sur une page est écrite directement dans le tableau, sans fragment.
+ * Les fragments des semaines absentes du dernier export sont supprimés.
+ */
+public class IncrementalPdfExporter {
+
+    // Version de la mise en page des fragments : à changer si le rendu des lignes change
+    private static final int FORMAT_VERSION = 1;
+
+    // Hauteur maximale d'un fragment, en points, pour qu'il tienne sur une page A4 avec les en-têtes
+    private static final float MAX_FRAGMENT_HEIGHT = 600;
+
+    // Largeur du tableau : page A4 moins les marges du document
+    private static final float TABLE_WIDTH = PageSize.A4.getWidth() - 2 * 36;
+
+    // Nombre de semaines ajoutées entre deux écritures du tableau dans le document
+    private static final int FLUSH_INTERVAL = 10;
+
+    private static final Pattern FRAGMENT_NAME = Pattern.compile("\\d+-W\\d{2}-[0-9a-f]{16}\\.pdf");
+
+    private final Path cacheDirectory;
+
+    private TimesheetPdfExporter.ProgressListener progressListener = rows -> { };
+
+    /**
+     * Bilan d'un export : semaines reprises du cache ou rendues. Une semaine
+     * répartie sur plusieurs suites d'entrées compte une fois par suite.
+     */
+    public static final class Result {
+        private final int weekCount;
+        private final int renderedWeeks;
+
+        private Result(int weekCount, int renderedWeeks) {
+            this.weekCount = weekCount;
+            this.renderedWeeks = renderedWeeks;
+        }
+
+        public int getWeekCount() {
+            return weekCount;
+        }
+
+        /**
+         * @return nombre de semaines mises en page lors de cet export
+         */
+        public int getRenderedWeeks() {
+            return renderedWeeks;
+        }
+
+        /**
+         * @return nombre de semaines reprises d'un export précédent
+         */
+        public int getReusedWeeks() {
+            return weekCount - renderedWeeks;
+        }
+    }
+
+    /**
+     * @param cacheDirectory répertoire des fragments, propre à une feuille d'heure
+     */
+    public IncrementalPdfExporter(Path cacheDirectory) {
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    /**
+     * Définit le suivi de l'avancement des exports (voir {@link TimesheetPdfExporter#setProgressListener}).
+     * @param progressListener suivi de l'avancement
+     */
+    public void setProgressListener(TimesheetPdfExporter.ProgressListener progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * Crée le PDF en réutilisant les fragments des semaines inchangées.
+     * @param entries entrées à exporter
+     * @param totals totaux journaliers et hebdomadaires de ces entrées
+     * @param out flux de destination
+     * @return bilan de l'export
+     * @throws IOException si le répertoire des fragments ne peut pas être lu ou écrit
+     */
+    public Result createPdf(Iterable<TimesheetEntry> entries, TotalsAggregator totals, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        TimesheetEvents.PdfExport event = new TimesheetEvents.PdfExport();
+        event.begin();
+        Files.createDirectories(cacheDirectory);
+
+        // Suites d'entrées consécutives de la même semaine, dans l'ordre fourni
+        List<List<TimesheetEntry>> runs = new ArrayList<>();
+        Map<Integer, List<TimesheetEntry>> weeks = new HashMap<>();
+        List<TimesheetEntry> run = null;
+        for (TimesheetEntry entry : entries) {
+            int yearWeek = entry.getYearWeek();
+            if (run == null || run.get(0).getYearWeek() != yearWeek) {
+                run = new ArrayList<>();
+                runs.add(run);
+            }
+            run.add(entry);
+            weeks.computeIfAbsent(yearWeek, w -> new ArrayList<>()).add(entry);
+        }
+
+        PdfWriter writer = new PdfWriter(out);
+        PdfDocument pdf = new PdfDocument(writer);
+        Document document = TimesheetPdfExporter.openDocument(pdf);
+        Table table = TimesheetPdfExporter.createTable(true);
+        document.add(table);
+
+        Set<String> usedFragments = new HashSet<>();
+        int rows = 0;
+        int totalMinutes = 0;
+        int rendered = 0;
+        int runIndex = 0;
+        for (List<TimesheetEntry> runEntries : runs) {
+            Path fragment = cacheDirectory.resolve(
+                    fragmentName(runEntries, weeks.get(runEntries.get(0).getYearWeek())));
+            if (!Files.exists(fragment)) {
+                rendered++;
+                if (!renderFragment(runEntries, totals, fragment)) {
+                    // Trop haute pour un fragment : lignes écrites directement
+                    for (TimesheetEntry entry : runEntries) {
+                        TimesheetPdfExporter.addRow(table, entry, totals);
+                    }
+                    fragment = null;
+                }
+            }
+            if (fragment != null) {
+                usedFragments.add(fragment.getFileName().toString());
+                table.addCell(new Cell(1, 6).add(loadFragment(fragment, pdf))
+                        .setPadding(0)
+                        .setBorder(Border.NO_BORDER));
+            }
+
+            for (TimesheetEntry entry : runEntries) {
+                totalMinutes += entry.getWorkedMinutes();
+            }
+            rows += runEntries.size();
+            if (++runIndex % FLUSH_INTERVAL == 0) {
+                table.flush();
+                TimesheetPdfExporter.reportProgress(progressListener, rows);
+            }
+        }
+        table.complete();
+        progressListener.onProgress(rows);
+
+        TimesheetPdfExporter.addSummary(document, totalMinutes);
+        document.close();
+        deleteUnusedFragments(usedFragments);
+
+        event.rows = rows;
+        event.bytes = writer.getCurrentPos();
+        event.commit();
+        Metrics.PDF_ROWS.add(rows);
+        Metrics.PDF_BYTES.add(event.bytes);
+        Metrics.PDF_WEEKS_RENDERED.add(rendered);
+        Metrics.PDF_WEEKS_REUSED.add(runs.size() - rendered);
+        Metrics.PDF_EXPORT.recordSince(start);
+        return new Result(runs.size(), rendered);
+    }
+
+    /**
+     * Nom du fragment d'une suite d'entrées : année, semaine et empreinte des entrées.
+     * @param run suite d'entrées consécutives de la semaine
+     * @param week toutes les entrées de la semaine
+     */
+    private static String fragmentName(List<TimesheetEntry> run, List<TimesheetEntry> week) {
+        TimesheetEntry first = run.get(0);
+        long fingerprint = fingerprint(run);
+        if (run.size() != week.size()) {
+            // Semaine répartie sur plusieurs suites : ses totaux dépendent aussi des autres
+            fingerprint = mix(fingerprint, week.size());
+            for (TimesheetEntry entry : week) {
+                fingerprint = mix(fingerprint, entry);
+            }
+        }
+        return String.format("%d-W%02d-%016x.pdf", first.getWeekYear(), first.getWeekNumber(), fingerprint);
+    }
+
+    /**
+     * Empreinte FNV-1a 64 bits des entrées d'une semaine et de la version de mise en page.
+     * Les totaux affichés ne dépendent que des entrées de la semaine.
+     */
+    static long fingerprint(List<TimesheetEntry> weekEntries) {
+        long hash = 0xcbf29ce484222325L;
+        hash = mix(hash, FORMAT_VERSION);
+        for (TimesheetEntry entry : weekEntries) {
+            hash = mix(hash, entry);
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, TimesheetEntry entry) {
+        hash = mix(hash, entry.getEpochDay());
+        hash = mix(hash, entry.getStartMinute());
+        return mix(hash, entry.getEndMinute());
+    }
+
+    private static long mix(long hash, int value) {
+        for (int shift = 0; shift < 32; shift += 8) {
+            hash ^= (value >>> shift) & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Rend les lignes d'une semaine dans un PDF d'une page ajustée à leur hauteur.
+     * @return false si la semaine est trop haute pour un fragment
+     */
+    private boolean renderFragment(List<TimesheetEntry> weekEntries, TotalsAggregator totals, Path fragment)
+            throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(8 * 1024);
+        PdfDocument pdf = new PdfDocument(new PdfWriter(bytes));
+        Document document = new Document(pdf, new PageSize(TABLE_WIDTH, MAX_FRAGMENT_HEIGHT));
+        document.setMargins(0, 0, 0, 0);
+        document.setFont(PdfStyles.createFont());
+
+        Table table = TimesheetPdfExporter.createTable(false);
+        for (TimesheetEntry entry : weekEntries) {
+            TimesheetPdfExporter.addRow(table, entry, totals);
+        }
+
+        // Mise en page à blanc pour connaître la hauteur du tableau
+        IRenderer renderer = table.createRendererSubTree().setParent(document.getRenderer());
+        LayoutResult layout = renderer.layout(new LayoutContext(
+                new LayoutArea(1, new Rectangle(TABLE_WIDTH, MAX_FRAGMENT_HEIGHT))));
+        if (layout.getStatus() != LayoutResult.FULL) {
+            document.close();
+            return false;
+        }
+
+        // Un point de plus pour la demi-épaisseur de la bordure inférieure
+        float height = (float) Math.ceil(layout.getOccupiedArea().getBBox().getHeight()) + 1;
+        pdf.setDefaultPageSize(new PageSize(TABLE_WIDTH, height));
+        document.add(table);
+        document.close();
+
+        // Écriture atomique : un fragment présent est toujours complet
+        Path temporary = Files.createTempFile(cacheDirectory, "fragment", ".tmp");
+        try {
+            Files.write(temporary, bytes.toByteArray());
+            Files.move(temporary, fragment, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        return true;
+    }
+
+    /**
+     * Copie la page d'un fragment dans le document final.
+     */
+    private static Image loadFragment(Path fragment, PdfDocument target) throws IOException {
+        try (PdfDocument source = new PdfDocument(new PdfReader(fragment.toFile()))) {
+            PdfFormXObject xObject = source.getFirstPage().copyAsFormXObject(target);
+            // Ajusté à la largeur de la cellule, diminuée des demi-bordures du tableau
+            return new Image(xObject).setAutoScaleWidth(true);
+        }
+    }
+
+    /**
+     * Supprime les fragments qui n'ont pas servi au dernier export.
+     */
+    private void deleteUnusedFragments(Set<String> usedFragments) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(cacheDirectory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (FRAGMENT_NAME.matcher(name).matches() && !usedFragments.contains(name)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.calculfeuilleheure.export;
+
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.FontProgramFactory;
+import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.kernel.colors.Color;
+import com.itextpdf.kernel.colors.DeviceRgb;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.layout.Style;
+import com.itextpdf.layout.properties.TextAlignment;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Ressources de mise en forme partagées par les exports PDF.
+ * <p>
+ * Les couleurs et les styles sans police sont créés une fois pour toutes ; les
+ * cellules y font référence au lieu de porter chacune leurs propriétés
+ * d'alignement et de marges. Le programme de police est chargé une seule
+ * fois par JVM et la police ({@link PdfFont}), liée à un document, une seule
+ * fois par document ; le gras est simulé sur cette même police, comme le
+ * faisait {@code setBold()}.
+ */
+final class PdfStyles {
+
+    static final Color HEADER_BACKGROUND = new DeviceRgb(200, 200, 200);
+
+    // Cellule de données : centrée, marges de 3 points
+    static final Style CELL = new Style()
+            .setTextAlignment(TextAlignment.CENTER)
+            .setPadding(3);
+
+    // Cellule d'en-tête : grise, en gras, centrée, marges de 5 points
+    static final Style HEADER_CELL = new Style()
+            .setBold()
+            .setBackgroundColor(HEADER_BACKGROUND)
+            .setTextAlignment(TextAlignment.CENTER)
+            .setPadding(5);
+
+    /**
+     * Programme de police, chargé à la première utilisation.
+     */
+    private static final class Fonts {
+        private static final FontProgram HELVETICA = load(StandardFonts.HELVETICA);
+
+        private static FontProgram load(String name) {
+            try {
+                return FontProgramFactory.createFont(name);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Police " + name + " introuvable", e);
+            }
+        }
+    }
+
+    private PdfStyles() {
+    }
+
+    /**
+     * Crée la police d'un nouveau document.
+     * @return police à utiliser pour tout le document
+     */
+    static PdfFont createFont() {
+        return PdfFontFactory.createFont(Fonts.HELVETICA, PdfEncodings.WINANSI);
+    }
+}
@@ -0,0 +1,289 @@
+package com.example.calculfeuilleheure.export;
+
+import com.example.calculfeuilleheure.metrics.Metrics;
+import com.example.calculfeuilleheure.metrics.TimesheetEvents;
+import com.example.calculfeuilleheure.model.TimesheetEntry;
+import com.example.calculfeuilleheure.service.TotalsAggregator;
+import com.itextpdf.kernel.events.Event;
+import com.itextpdf.kernel.events.IEventHandler;
+import com.itextpdf.kernel.events.PdfDocumentEvent;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfPage;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.properties.TextAlignment;
+import com.itextpdf.layout.properties.UnitValue;
+
+import java.io.FileNotFoundException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Export PDF de la feuille d'heure.
+ * Indépendant de l'interface JavaFX, afin d'être utilisable hors du contrôleur.
+ * Le tableau est produit en flux (tableau « large » d'iText) : les lignes sont
+ * écrites au fil de l'itération et les pages terminées libérées, si bien que la
+ * mémoire utilisée ne dépend pas du nombre d'entrées.
+ * Les styles, couleurs et polices sont partagés par toutes les cellules
+ * (voir {@link PdfStyles}).
+ */
+public class TimesheetPdfExporter {
+
+    // Nombre de lignes ajoutées entre deux écritures du tableau dans le document
+    private static final int FLUSH_INTERVAL = 100;
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    // Largeurs relatives et titres des colonnes du tableau
+    private static final float[] COLUMN_WIDTHS = {200F, 100F, 100F, 100F, 150F, 200F};
+    private static final String[] HEADERS =
+            {"Date", "Heures", "Heure de fin", "Heures travaillées", "Total journalier", "Total hebdomadaire"};
+
+    private ProgressListener progressListener = rows -> { };
+
+    /**
+     * Suivi de l'avancement d'un export, appelé toutes les {@value #FLUSH_INTERVAL} lignes.
+     */
+    public interface ProgressListener {
+        /**
+         * @param rowsWritten nombre de lignes écrites jusqu'ici
+         */
+        void onProgress(int rowsWritten);
+
+        /**
+         * @return true pour interrompre l'export
+         */
+        default boolean isCancelled() {
+            return false;
+        }
+    }
+
+    /**
+     * Définit le suivi de l'avancement des exports.
+     * En cas d'annulation, l'export lève une {@link CancellationException} et le
+     * flux de destination, laissé incomplet, est à fermer et supprimer par l'appelant.
+     * @param progressListener suivi de l'avancement
+     */
+    public void setProgressListener(ProgressListener progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * Gestionnaire d'événement pour ajouter un pied de page avec numéro de page.
+     * Le texte est écrit directement dans le flux de la page, avec la police du
+     * document, sans passer par un {@code Canvas} de mise en page.
+     */
+    private static class FooterEventHandler implements IEventHandler {
+        private static final float FONT_SIZE = 10;
+
+        private final PdfFont font;
+
+        private FooterEventHandler(PdfFont font) {
+            this.font = font;
+        }
+
+        @Override
+        public void handleEvent(Event event) {
+            PdfDocumentEvent docEvent = (PdfDocumentEvent) event;
+            PdfDocument pdfDoc = docEvent.getDocument();
+            PdfPage page = docEvent.getPage();
+            Rectangle pageSize = page.getPageSize();
+            String text = "Page " + pdfDoc.getPageNumber(page) + " / " + pdfDoc.getNumberOfPages();
+            new PdfCanvas(page.newContentStreamBefore(), page.getResources(), pdfDoc)
+                    .beginText()
+                    .setFontAndSize(font, FONT_SIZE)
+                    .moveText((pageSize.getWidth() - font.getWidth(text, FONT_SIZE)) / 2, 20)
+                    .showText(text)
+                    .endText();
+        }
+    }
+
+    /**
+     * Crée le PDF avec les données de la feuille d'heure.
+     * @param entries entrées à exporter, dans l'ordre d'affichage
+     * @param totals totaux journaliers et hebdomadaires de ces entrées
+     * @param dest chemin du fichier PDF à créer
+     * @throws FileNotFoundException si le fichier ne peut pas être créé
+     */
+    public void createPdf(Iterable<TimesheetEntry> entries, TotalsAggregator totals, String dest) throws FileNotFoundException {
+        createPdf(entries.iterator(), totals, new PdfWriter(dest));
+    }
+
+    /**
+     * Crée le PDF avec les données de la feuille d'heure dans un flux.
+     * @param entries entrées à exporter, dans l'ordre d'affichage
+     * @param totals totaux journaliers et hebdomadaires de ces entrées
+     * @param out flux de destination
+     */
+    public void createPdf(Iterable<TimesheetEntry> entries, TotalsAggregator totals, OutputStream out) {
+        createPdf(entries.iterator(), totals, new PdfWriter(out));
+    }
+
+    /**
+     * Crée le PDF en consommant les entrées au fil de l'itération, sans les conserver.
+     * @param entries itérateur sur les entrées à exporter, dans l'ordre d'affichage
+     * @param totals totaux journaliers et hebdomadaires de ces entrées
+     * @param out flux de destination
+     */
+    public void createPdf(Iterator<TimesheetEntry> entries, TotalsAggregator totals, OutputStream out) {
+        createPdf(entries, totals, new PdfWriter(out));
+    }
+
+    private void createPdf(Iterator<TimesheetEntry> entries, TotalsAggregator totals, PdfWriter writer) {
+        long start = System.nanoTime();
+        TimesheetEvents.PdfExport event = new TimesheetEvents.PdfExport();
+        event.begin();
+
+        Document document = openDocument(new PdfDocument(writer));
+
+        // Tableau stylisé, écrit au fur et à mesure (en-têtes répétés sur chaque page)
+        Table table = createTable(true);
+        document.add(table);
+
+        // Données
+        int rows = 0;
+        int totalMinutes = 0;
+        while (entries.hasNext()) {
+            TimesheetEntry entry = entries.next();
+            addRow(table, entry, totals);
+            totalMinutes += entry.getWorkedMinutes();
+            if (++rows % FLUSH_INTERVAL == 0) {
+                table.flush();
+                reportProgress(progressListener, rows);
+            }
+        }
+        table.complete();
+        progressListener.onProgress(rows);
+
+        addSummary(document, totalMinutes);
+        document.close();
+
+        // Mesures : nombre de lignes, octets écrits et durée
+        event.rows = rows;
+        event.bytes = writer.getCurrentPos();
+        event.commit();
+        Metrics.PDF_ROWS.add(rows);
+        Metrics.PDF_BYTES.add(event.bytes);
+        Metrics.PDF_EXPORT.recordSince(start);
+    }
+
+    /**
+     * Ouvre le document : marges, police, pied de page, titre et date de génération.
+     * @param pdf document PDF vide
+     * @return document prêt à recevoir le tableau
+     */
+    static Document openDocument(PdfDocument pdf) {
+        PdfFont font = PdfStyles.createFont();
+        Document document = new Document(pdf);
+        document.setMargins(36, 36, 36, 36); // Marges de 36 points (0.5 pouce)
+        document.setFont(font);
+
+        // Ajouter le gestionnaire de pied de page
+        pdf.addEventHandler(PdfDocumentEvent.END_PAGE, new FooterEventHandler(font));
+
+        // En-tête
+        Paragraph header = new Paragraph("Feuille d'heure")
+                .setBold()
+                .setFontSize(18)
+                .setTextAlignment(TextAlignment.CENTER)
+                .setMarginBottom(10);
+        document.add(header);
+
+        String generatedDate = LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"));
+        Paragraph subHeader = new Paragraph("Généré le " + generatedDate)
+                .setFontSize(10)
+                .setTextAlignment(TextAlignment.CENTER)
+                .setMarginBottom(20);
+        document.add(subHeader);
+        return document;
+    }
+
+    /**
+     * Crée le tableau des entrées.
+     * @param withHeaders true pour le tableau principal, écrit en flux avec ses en-têtes
+     *                    répétés sur chaque page ; false pour un fragment sans en-tête
+     * @return tableau vide
+     */
+    static Table createTable(boolean withHeaders) {
+        Table table = new Table(UnitValue.createPercentArray(COLUMN_WIDTHS), withHeaders).useAllAvailableWidth();
+        if (withHeaders) {
+            table.setMarginBottom(20);
+
+            // En-têtes avec style
+            for (String headerText : HEADERS) {
+                table.addHeaderCell(new Cell().add(new Paragraph(headerText)).addStyle(PdfStyles.HEADER_CELL));
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Ajoute la ligne d'une entrée au tableau.
+     * @param table tableau des entrées
+     * @param entry entrée
+     * @param totals totaux journaliers et hebdomadaires
+     */
+    static void addRow(Table table, TimesheetEntry entry, TotalsAggregator totals) {
+        table.addCell(createCell(entry.getDate().format(DATE_FORMATTER)));
+        table.addCell(createCell(entry.getHoursFormatted()));
+        table.addCell(createCell(entry.getEndHoursFormatted()));
+        table.addCell(createCell(entry.getWorkedHoursFormatted()));
+
+        // Ajouter le total journalier dans le PDF
+        if (totals.isPartOfGroup(entry)) {
+            table.addCell(createCell(TimesheetEntry.formatTotalMinutes(totals.getDailyTotal(entry.getEpochDay()))));
+        } else {
+            table.addCell(createCell("-"));
+        }
+
+        // Ajouter le total hebdomadaire dans le PDF
+        if (totals.isLastInWeek(entry)) {
+            table.addCell(createCell(totals.formatWeeklyTotal(entry)));
+        } else {
+            table.addCell(createCell(""));
+        }
+    }
+
+    /**
+     * Signale l'avancement et interrompt l'export s'il a été annulé.
+     */
+    static void reportProgress(ProgressListener progressListener, int rows) {
+        progressListener.onProgress(rows);
+        if (progressListener.isCancelled()) {
+            throw new CancellationException("Export PDF annulé");
+        }
+    }
+
+    /**
+     * Ajoute le résumé des heures totales après le tableau.
+     * @param document document
+     * @param totalMinutes total des minutes travaillées
+     */
+    static void addSummary(Document document, int totalMinutes) {
+        Paragraph summary = new Paragraph("Total des heures travaillées : " + TimesheetEntry.formatTotalMinutes(totalMinutes))
+                .setBold()
+                .setFontSize(12)
+                .setTextAlignment(TextAlignment.RIGHT)
+                .setMarginTop(20);
+        document.add(summary);
+    }
+
+    /**
+     * Crée une cellule stylisée pour le tableau.
+     * Le style est partagé : la cellule ne porte aucune propriété propre.
+     * @param text texte de la cellule
+     * @return cellule stylisée
+     */
+    private static Cell createCell(String text) {
+        return new Cell().add(new Paragraph(text)).addStyle(PdfStyles.CELL);
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.calculfeuilleheure.io;
+
+import com.example.calculfeuilleheure.model.TimesheetEntry;
+import com.example.calculfeuilleheure.util.HoursParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Lecture en flux d'un fichier CSV de feuille d'heure, une entrée par ligne :
+ * {@code date;début;fin}, par exemple {@code 2025-01-06;08h30;17h45}.
+ * <p>
+ * Les dates sont acceptées au format {@code yyyy-MM-dd} ou {@code dd/MM/yyyy},
+ * les heures au format "xxhyy" ou "xx:yy". La marque d'ordre des octets
+ * (BOM) ajoutée par certains tableurs, une première ligne d'en-tête
+ * {@code date;debut;fin} (voir {@link TimesheetCsvWriter#HEADER}) et les
+ * lignes vides sont ignorées. Le fichier est lu par blocs dans un tampon de
+ * caractères et les champs sont analysés directement dans ce tampon, sans
+ * créer de chaîne par champ.
+ */
+public class TimesheetCsvReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_LINE_LENGTH = 1024;
+    private static final char SEPARATOR = ';';
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final Reader reader;
+    private char[] buffer = new char[BUFFER_SIZE];
+    private long lineNumber;
+
+    // Dernière date lue : les lignes consécutives partagent souvent la même date
+    private int lastYear;
+    private int lastMonth;
+    private int lastDay;
+    private LocalDate lastDate;
+
+    /**
+     * @param reader source des caractères, lue par blocs
+     */
+    public TimesheetCsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Lit toutes les entrées d'un fichier CSV encodé en UTF-8.
+     * @param file fichier à lire
+     * @return entrées dans l'ordre du fichier
+     * @throws TimesheetImportException si une ligne est invalide
+     * @throws IOException en cas d'erreur de lecture
+     */
+    public static List<TimesheetEntry> read(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return new TimesheetCsvReader(reader).readAll();
+        }
+    }
+
+    /**
+     * Lit toutes les entrées restantes.
+     * @return entrées dans l'ordre du fichier
+     * @throws TimesheetImportException si une ligne est invalide
+     * @throws IOException en cas d'erreur de lecture
+     */
+    public List<TimesheetEntry> readAll() throws IOException {
+        List<TimesheetEntry> entries = new ArrayList<>();
+        forEach(entries::add);
+        return entries;
+    }
+
+    /**
+     * Lit les entrées une à une et les transmet au consommateur, sans les conserver.
+     * @param sink consommateur des entrées lues
+     * @throws TimesheetImportException si une ligne est invalide
+     * @throws IOException en cas d'erreur de lecture
+     */
+    public void forEach(Consumer<TimesheetEntry> sink) throws IOException {
+        int start = 0;
+        int end = 0;
+        int scan = 0;
+        boolean eof = false;
+        while (true) {
+            // Recherche de la fin de ligne dans les caractères déjà lus
+            while (scan < end && buffer[scan] != '\n') {
+                scan++;
+            }
+            if (scan < end) {
+                parseLine(start, scan, sink);
+                start = ++scan;
+                continue;
+            }
+            if (eof) {
+                if (start < end) {
+                    parseLine(start, end, sink);
+                }
+                return;
+            }
+            // Ligne incomplète : on la ramène en début de tampon puis on lit la suite
+            if (start > 0) {
+                System.arraycopy(buffer, start, buffer, 0, end - start);
+                end -= start;
+                scan -= start;
+                start = 0;
+            } else if (end == buffer.length) {
+                throw new TimesheetImportException(lineNumber + 1, "ligne trop longue");
+            }
+            int read = reader.read(buffer, end, buffer.length - end);
+            if (read < 0) {
+                eof = true;
+            } else {
+                end += read;
+            }
+        }
+    }
+
+    private void parseLine(int from, int to, Consumer<TimesheetEntry> sink) throws TimesheetImportException {
+        lineNumber++;
+        if (to > from && buffer[to - 1] == '\r') {
+            to--;
+        }
+        if (lineNumber == 1 && from < to && buffer[from] == BYTE_ORDER_MARK) {
+            from++;
+        }
+        from = skipSpaces(from, to);
+        if (from == to) {
+            return;
+        }
+        if (to - from > MAX_LINE_LENGTH) {
+            throw new TimesheetImportException(lineNumber, "ligne trop longue");
+        }
+        if (lineNumber == 1 && isHeader(from, to)) {
+            return;
+        }
+
+        int firstSeparator = indexOf(SEPARATOR, from, to);
+        int secondSeparator = firstSeparator < 0 ? -1 : indexOf(SEPARATOR, firstSeparator + 1, to);
+        if (secondSeparator < 0 || indexOf(SEPARATOR, secondSeparator + 1, to) >= 0) {
+            throw new TimesheetImportException(lineNumber, "3 champs attendus (date;début;fin)");
+        }
+
+        LocalDate date = parseDate(from, trimEnd(from, firstSeparator));
+        int startMinute = HoursParser.parse(buffer, skipSpaces(firstSeparator + 1, secondSeparator),
+                trimEnd(firstSeparator + 1, secondSeparator));
+        if (startMinute == HoursParser.INVALID) {
+            throw new TimesheetImportException(lineNumber, "heure de début invalide (format attendu : 08h30)");
+        }
+        int endMinute = HoursParser.parse(buffer, skipSpaces(secondSeparator + 1, to), trimEnd(secondSeparator + 1, to));
+        if (endMinute == HoursParser.INVALID) {
+            throw new TimesheetImportException(lineNumber, "heure de fin invalide (format attendu : 17h30)");
+        }
+        if (!HoursParser.isTimeOfDay(startMinute) || !HoursParser.isTimeOfDay(endMinute)) {
+            throw new TimesheetImportException(lineNumber, "heure hors de la journée (0h00 à 23h59)");
+        }
+        sink.accept(TimesheetEntry.ofMinutes(date, startMinute, endMinute));
+    }
+
+    /**
+     * Reconnaît l'en-tête écrit par {@link TimesheetCsvWriter}, avec ou sans accent ni majuscules.
+     * Toute autre première ligne est analysée comme une entrée : une ligne invalide
+     * est signalée au lieu d'être ignorée en silence.
+     */
+    private boolean isHeader(int from, int to) {
+        String[] fields = new String(buffer, from, to - from).split(String.valueOf(SEPARATOR), -1);
+        return fields.length == 3
+                && fields[0].trim().equalsIgnoreCase("date")
+                && (fields[1].trim().equalsIgnoreCase("debut") || fields[1].trim().equalsIgnoreCase("début"))
+                && fields[2].trim().equalsIgnoreCase("fin");
+    }
+
+    /**
+     * Analyse une date {@code yyyy-MM-dd} ou {@code dd/MM/yyyy}.
+     */
+    private LocalDate parseDate(int from, int to) throws TimesheetImportException {
+        int year;
+        int month;
+        int day;
+        if (to - from == 10 && buffer[from + 4] == '-' && buffer[from + 7] == '-') {
+            year = digits(from, from + 4);
+            month = digits(from + 5, from + 7);
+            day = digits(from + 8, from + 10);
+        } else if (to - from == 10 && buffer[from + 2] == '/' && buffer[from + 5] == '/') {
+            day = digits(from, from + 2);
+            month = digits(from + 3, from + 5);
+            year = digits(from + 6, from + 10);
+        } else {
+            throw new TimesheetImportException(lineNumber, "date invalide (format attendu : 2025-01-31 ou 31/01/2025)");
+        }
+        if (year < 0 || month < 0 || day < 0) {
+            throw new TimesheetImportException(lineNumber, "date invalide");
+        }
+        if (lastDate != null && year == lastYear && month == lastMonth && day == lastDay) {
+            return lastDate;
+        }
+        try {
+            lastDate = LocalDate.of(year, month, day);
+        } catch (DateTimeException e) {
+            throw new TimesheetImportException(lineNumber, "date inexistante");
+        }
+        lastYear = year;
+        lastMonth = month;
+        lastDay = day;
+        return lastDate;
+    }
+
+    /**
+     * @return valeur des chiffres entre from et to, ou -1 si un caractère n'est pas un chiffre
+     */
+    private int digits(int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            if (!isDigit(buffer[i])) {
+                return -1;
+            }
+            value = value * 10 + (buffer[i] - '0');
+        }
+        return value;
+    }
+
+    private int indexOf(char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int skipSpaces(int from, int to) {
+        while (from < to && buffer[from] == ' ') {
+            from++;
+        }
+        return from;
+    }
+
+    private int trimEnd(int from, int to) {
+        while (to > from && buffer[to - 1] == ' ') {
+            to--;
+        }
+        return to;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.calculfeuilleheure.io;
+
+import com.example.calculfeuilleheure.model.TimesheetEntry;
+import com.example.calculfeuilleheure.util.HoursFormat;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+/**
+ * Écriture d'une feuille d'heure au format CSV {@code date;début;fin},
+ * relisible par {@link TimesheetCsvReader}.
+ * <p>
+ * Chaque ligne est composée dans un tampon de caractères réutilisé puis écrite
+ * d'un seul bloc, sans chaîne intermédiaire par champ.
+ */
+public class TimesheetCsvWriter {
+
+    /** Ligne d'en-tête écrite en début de fichier. */
+    public static final String HEADER = "date;debut;fin";
+
+    private static final char SEPARATOR = ';';
+
+    private final Writer writer;
+    private final StringBuilder line = new StringBuilder(32);
+
+    /**
+     * @param writer destination, de préférence tamponnée
+     */
+    public TimesheetCsvWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Écrit les entrées dans un fichier CSV encodé en UTF-8, en-tête compris.
+     * @param entries entrées à écrire
+     * @param file fichier à créer ou remplacer
+     * @throws IOException en cas d'erreur d'écriture
+     */
+    public static void write(Iterable<TimesheetEntry> entries, Path file) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            TimesheetCsvWriter csv = new TimesheetCsvWriter(writer);
+            csv.writeHeader();
+            for (TimesheetEntry entry : entries) {
+                csv.write(entry);
+            }
+        }
+    }
+
+    /**
+     * Écrit la ligne d'en-tête.
+     * @throws IOException en cas d'erreur d'écriture
+     */
+    public void writeHeader() throws IOException {
+        writer.write(HEADER);
+        writer.write('\n');
+    }
+
+    /**
+     * Écrit une entrée, par exemple {@code 2025-01-06;8h30;17h45}.
+     * @param entry entrée à écrire
+     * @throws IOException en cas d'erreur d'écriture
+     */
+    public void write(TimesheetEntry entry) throws IOException {
+        line.setLength(0);
+        appendDate(line, entry.getDate());
+        line.append(SEPARATOR);
+        HoursFormat.appendTo(line, entry.getStartMinute());
+        line.append(SEPARATOR);
+        HoursFormat.appendTo(line, entry.getEndMinute());
+        line.append('\n');
+        writer.append(line);
+    }
+
+    /**
+     * Ajoute une date au format {@code yyyy-MM-dd}.
+     */
+    private static void appendDate(StringBuilder sb, LocalDate date) {
+        int year = date.getYear();
+        if (year < 1000 || year > 9999) {
+            // Hors du format à 4 chiffres : laissé à LocalDate
+            sb.append(date);
+            return;
+        }
+        sb.append(year).append('-');
+        appendTwoDigits(sb, date.getMonthValue());
+        sb.append('-');
+        appendTwoDigits(sb, date.getDayOfMonth());
+    }
+
+    private static void appendTwoDigits(StringBuilder sb, int value) {
+        sb.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+}
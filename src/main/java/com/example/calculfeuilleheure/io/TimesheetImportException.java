@@ -0,0 +1,30 @@
+package com.example.calculfeuilleheure.io;
+
+import java.io.IOException;
+
+/**
+ * Erreur de format rencontrée lors de l'import d'un fichier de feuille d'heure.
+ * Indique le numéro de la ligne en cause.
+ */
+public class TimesheetImportException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long lineNumber;
+
+    /**
+     * @param lineNumber numéro de la ligne en erreur (à partir de 1)
+     * @param message description de l'erreur
+     */
+    public TimesheetImportException(long lineNumber, String message) {
+        super("Ligne " + lineNumber + " : " + message);
+        this.lineNumber = lineNumber;
+    }
+
+    /**
+     * @return numéro de la ligne en erreur (à partir de 1)
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.calculfeuilleheure.metrics;
+
+/**
+ * Valeurs d'une {@link LatencyStat} à un instant donné.
+ * Exposée en JMX sous forme de données composites.
+ */
+public final class LatencySnapshot {
+
+    private final long count;
+    private final long totalNanos;
+    private final long maxNanos;
+    private final long p50Micros;
+    private final long p99Micros;
+
+    public LatencySnapshot(long count, long totalNanos, long maxNanos, long p50Micros, long p99Micros) {
+        this.count = count;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+        this.p50Micros = p50Micros;
+        this.p99Micros = p99Micros;
+    }
+
+    /**
+     * @return nombre de mesures
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return somme des durées en nanosecondes
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * @return durée maximale en nanosecondes
+     */
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * @return durée médiane approchée (borne supérieure de sa classe), en microsecondes
+     */
+    public long getP50Micros() {
+        return p50Micros;
+    }
+
+    /**
+     * @return 99e percentile approché (borne supérieure de sa classe), en microsecondes
+     */
+    public long getP99Micros() {
+        return p99Micros;
+    }
+
+    /**
+     * @return durée moyenne en microsecondes
+     */
+    public double getMeanMicros() {
+        return count == 0 ? 0 : totalNanos / 1000.0 / count;
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.calculfeuilleheure.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistique de durée à faible coût : nombre de mesures, somme, maximum et
+ * histogramme par puissances de deux (en microsecondes).
+ * L'enregistrement n'utilise que des {@link LongAdder}, sans verrou ni
+ * allocation, et peut être appelé depuis n'importe quel thread.
+ */
+public final class LatencyStat {
+
+    // Classe i : durées de [2^(i-1), 2^i[ microsecondes (classe 0 : moins d'une microseconde)
+    private static final int BUCKETS = 40;
+
+    private final String name;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+    /**
+     * @param name nom de la mesure, affiché dans les diagnostics
+     */
+    public LatencyStat(String name) {
+        this.name = name;
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Enregistre une durée.
+     * @param nanos durée en nanosecondes
+     */
+    public void record(long nanos) {
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+        long micros = nanos / 1000;
+        int bucket = micros <= 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        buckets[bucket].increment();
+    }
+
+    /**
+     * Enregistre la durée écoulée depuis un instant mesuré avec {@link System#nanoTime()}.
+     * @param startNanos instant de début
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return instantané des valeurs courantes
+     */
+    public LatencySnapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            n += counts[i];
+        }
+        return new LatencySnapshot(count.sum(), totalNanos.sum(), maxNanos.get(),
+                percentileMicros(counts, n, 0.5), percentileMicros(counts, n, 0.99));
+    }
+
+    /**
+     * Borne supérieure de la classe contenant le percentile demandé.
+     */
+    private static long percentileMicros(long[] counts, long n, double percentile) {
+        if (n == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(n * percentile);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return 1L << i;
+            }
+        }
+        return 1L << (counts.length - 1);
+    }
+
+    /**
+     * Remet la statistique à zéro.
+     */
+    public void reset() {
+        count.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+    }
+}
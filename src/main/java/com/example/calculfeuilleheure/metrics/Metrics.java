@@ -0,0 +1,157 @@
+package com.example.calculfeuilleheure.metrics;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mesures des chemins critiques de l'application : mise à jour des totaux,
+ * construction des cellules du tableau, analyse des saisies et export PDF.
+ * <p>
+ * Les compteurs sont globaux et sans verrou ; ils sont consultables en JMX
+ * ({@link #registerMBean()}), dans le panneau de diagnostics de la fenêtre
+ * principale, et complétés par les événements JFR de {@link TimesheetEvents}.
+ */
+public final class Metrics implements MetricsMXBean {
+
+    /** Nom JMX du bean des mesures. */
+    public static final String OBJECT_NAME = "com.example.calculfeuilleheure:type=Metrics";
+
+    public static final LatencyStat TOTALS_UPDATE = new LatencyStat("Totaux");
+    public static final LatencyStat ROW_BUILD = new LatencyStat("Lignes du tableau");
+    public static final LatencyStat ENTRY_PARSE = new LatencyStat("Analyse des saisies");
+    public static final LatencyStat PDF_EXPORT = new LatencyStat("Export PDF");
+
+    public static final LongAdder TOTALS_ENTRIES = new LongAdder();
+    public static final LongAdder ROW_CACHE_HITS = new LongAdder();
+    public static final LongAdder ROW_CACHE_MISSES = new LongAdder();
+    public static final LongAdder PDF_ROWS = new LongAdder();
+    public static final LongAdder PDF_BYTES = new LongAdder();
+    public static final LongAdder PDF_WEEKS_REUSED = new LongAdder();
+    public static final LongAdder PDF_WEEKS_RENDERED = new LongAdder();
+
+    private static final Metrics INSTANCE = new Metrics();
+
+    private Metrics() {
+    }
+
+    /**
+     * @return instance unique, vue JMX des compteurs globaux
+     */
+    public static Metrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Enregistre le bean des mesures auprès du serveur JMX de la plateforme.
+     * Sans effet s'il est déjà enregistré.
+     * @throws IllegalStateException si l'enregistrement échoue
+     */
+    public static void registerMBean() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException e) {
+            // Déjà enregistré
+        } catch (JMException e) {
+            throw new IllegalStateException("Enregistrement JMX impossible", e);
+        }
+    }
+
+    /**
+     * Résumé lisible des mesures, une ligne par mesure.
+     * @return texte affiché dans le panneau de diagnostics
+     */
+    public static String summary() {
+        StringBuilder sb = new StringBuilder(512);
+        appendLatency(sb, TOTALS_UPDATE).append(", ").append(TOTALS_ENTRIES.sum()).append(" entrées\n");
+        appendLatency(sb, ROW_BUILD).append(", cache ").append(ROW_CACHE_HITS.sum())
+                .append(" succès / ").append(ROW_CACHE_MISSES.sum()).append(" échecs\n");
+        appendLatency(sb, ENTRY_PARSE).append('\n');
+        appendLatency(sb, PDF_EXPORT).append(", ").append(PDF_ROWS.sum()).append(" lignes, ")
+                .append(PDF_BYTES.sum() / 1024).append(" Ko, semaines ").append(PDF_WEEKS_REUSED.sum())
+                .append(" reprises / ").append(PDF_WEEKS_RENDERED.sum()).append(" rendues");
+        return sb.toString();
+    }
+
+    private static StringBuilder appendLatency(StringBuilder sb, LatencyStat stat) {
+        LatencySnapshot snapshot = stat.snapshot();
+        return sb.append(stat.getName()).append(" : ").append(snapshot.getCount()).append(" fois, moy. ")
+                .append(Math.round(snapshot.getMeanMicros())).append(" µs, p99 < ")
+                .append(snapshot.getP99Micros()).append(" µs, max ")
+                .append(snapshot.getMaxNanos() / 1000).append(" µs");
+    }
+
+    @Override
+    public LatencySnapshot getTotalsUpdate() {
+        return TOTALS_UPDATE.snapshot();
+    }
+
+    @Override
+    public LatencySnapshot getRowBuild() {
+        return ROW_BUILD.snapshot();
+    }
+
+    @Override
+    public LatencySnapshot getEntryParse() {
+        return ENTRY_PARSE.snapshot();
+    }
+
+    @Override
+    public LatencySnapshot getPdfExport() {
+        return PDF_EXPORT.snapshot();
+    }
+
+    @Override
+    public long getTotalsEntriesProcessed() {
+        return TOTALS_ENTRIES.sum();
+    }
+
+    @Override
+    public long getRowCacheHits() {
+        return ROW_CACHE_HITS.sum();
+    }
+
+    @Override
+    public long getRowCacheMisses() {
+        return ROW_CACHE_MISSES.sum();
+    }
+
+    @Override
+    public long getPdfRowsWritten() {
+        return PDF_ROWS.sum();
+    }
+
+    @Override
+    public long getPdfBytesWritten() {
+        return PDF_BYTES.sum();
+    }
+
+    @Override
+    public long getPdfWeeksReused() {
+        return PDF_WEEKS_REUSED.sum();
+    }
+
+    @Override
+    public long getPdfWeeksRendered() {
+        return PDF_WEEKS_RENDERED.sum();
+    }
+
+    @Override
+    public void reset() {
+        TOTALS_UPDATE.reset();
+        ROW_BUILD.reset();
+        ENTRY_PARSE.reset();
+        PDF_EXPORT.reset();
+        TOTALS_ENTRIES.reset();
+        ROW_CACHE_HITS.reset();
+        ROW_CACHE_MISSES.reset();
+        PDF_ROWS.reset();
+        PDF_BYTES.reset();
+        PDF_WEEKS_REUSED.reset();
+        PDF_WEEKS_RENDERED.reset();
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.calculfeuilleheure.metrics;
+
+/**
+ * Mesures de l'application exposées en JMX, sous le nom {@link Metrics#OBJECT_NAME}.
+ */
+public interface MetricsMXBean {
+
+    /**
+     * @return durées de mise à jour des totaux après un changement de la liste
+     */
+    LatencySnapshot getTotalsUpdate();
+
+    /**
+     * @return durées de construction des lignes du tableau (cellules non mémorisées)
+     */
+    LatencySnapshot getRowBuild();
+
+    /**
+     * @return durées d'analyse des heures saisies
+     */
+    LatencySnapshot getEntryParse();
+
+    /**
+     * @return durées de génération des PDF
+     */
+    LatencySnapshot getPdfExport();
+
+    /**
+     * @return nombre d'entrées ajoutées ou retirées des totaux
+     */
+    long getTotalsEntriesProcessed();
+
+    /**
+     * @return nombre de demandes de cellules servies par le cache de lignes
+     */
+    long getRowCacheHits();
+
+    /**
+     * @return nombre de demandes de cellules ayant construit une ligne
+     */
+    long getRowCacheMisses();
+
+    /**
+     * @return nombre de lignes écrites dans les PDF
+     */
+    long getPdfRowsWritten();
+
+    /**
+     * @return nombre d'octets écrits dans les PDF
+     */
+    long getPdfBytesWritten();
+
+    /**
+     * @return nombre de semaines reprises d'un export PDF précédent
+     */
+    long getPdfWeeksReused();
+
+    /**
+     * @return nombre de semaines mises en page par l'export PDF incrémental
+     */
+    long getPdfWeeksRendered();
+
+    /**
+     * Remet toutes les mesures à zéro.
+     */
+    void reset();
+}
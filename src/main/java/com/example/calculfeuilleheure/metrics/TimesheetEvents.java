@@ -0,0 +1,50 @@
+package com.example.calculfeuilleheure.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Événements JFR de l'application, visibles dans un enregistrement
+ * (par exemple {@code -XX:StartFlightRecording}) sous la catégorie
+ * "Calcul Feuille d'Heure". Hors enregistrement, leur coût est négligeable.
+ */
+public final class TimesheetEvents {
+
+    private static final String CATEGORY = "Calcul Feuille d'Heure";
+
+    private TimesheetEvents() {
+    }
+
+    @Name("com.example.calculfeuilleheure.TotalsUpdate")
+    @Label("Mise à jour des totaux")
+    @Category(CATEGORY)
+    @Description("Application d'un changement de la liste aux totaux journaliers et hebdomadaires")
+    public static final class TotalsUpdate extends Event {
+        @Label("Entrées traitées")
+        public int entries;
+    }
+
+    @Name("com.example.calculfeuilleheure.EntryParse")
+    @Label("Analyse d'une saisie")
+    @Category(CATEGORY)
+    public static final class EntryParse extends Event {
+        @Label("Saisie valide")
+        public boolean valid;
+    }
+
+    @Name("com.example.calculfeuilleheure.PdfExport")
+    @Label("Export PDF")
+    @Category(CATEGORY)
+    public static final class PdfExport extends Event {
+        @Label("Lignes écrites")
+        public int rows;
+
+        @Label("Taille")
+        @DataAmount
+        public long bytes;
+    }
+}
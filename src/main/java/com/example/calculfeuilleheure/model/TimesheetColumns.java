@@ -0,0 +1,295 @@
+package com.example.calculfeuilleheure.model;
+
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Stockage en colonnes d'une feuille d'heure : un tableau d'epoch-days et deux
+ * tableaux de minutes (début, fin), triés par date. Une entrée occupe 8 octets,
+ * sans objet ni référence par entrée, et les totaux se calculent par parcours
+ * séquentiel des tableaux.
+ * <p>
+ * Les entrées d'une même date conservent leur ordre d'ajout. La vue
+ * {@link #asList()} présente les colonnes comme une liste d'entrées, créées
+ * à la lecture, pour les composants qui attendent des {@link TimesheetEntry}
+ * (export PDF, agrégateur).
+ */
+public final class TimesheetColumns {
+
+    private int[] epochDays;
+    private short[] startMinutes;
+    private short[] endMinutes;
+    private int size;
+
+    public TimesheetColumns() {
+        this(16);
+    }
+
+    /**
+     * @param capacity nombre d'entrées prévu
+     */
+    public TimesheetColumns(int capacity) {
+        epochDays = new int[Math.max(capacity, 1)];
+        startMinutes = new short[epochDays.length];
+        endMinutes = new short[epochDays.length];
+    }
+
+    /**
+     * Construit les colonnes à partir d'entrées dans un ordre quelconque, en O(n log n).
+     * @param entries entrées
+     * @return colonnes triées par date
+     */
+    public static TimesheetColumns of(Collection<TimesheetEntry> entries) {
+        TimesheetColumns columns = new TimesheetColumns(entries.size());
+        boolean sorted = true;
+        for (TimesheetEntry entry : entries) {
+            int day = entry.getEpochDay();
+            int n = columns.size;
+            sorted &= n == 0 || columns.epochDays[n - 1] <= day;
+            columns.epochDays[n] = day;
+            columns.startMinutes[n] = (short) entry.getStartMinute();
+            columns.endMinutes[n] = (short) entry.getEndMinute();
+            columns.size++;
+        }
+        if (!sorted) {
+            columns.sortByDate();
+        }
+        return columns;
+    }
+
+    /**
+     * Tri stable par date : l'indice d'origine départage les entrées d'une même date.
+     */
+    private void sortByDate() {
+        long[] order = new long[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = ((long) epochDays[i] << 32) | i;
+        }
+        Arrays.sort(order);
+        int[] days = new int[epochDays.length];
+        short[] starts = new short[epochDays.length];
+        short[] ends = new short[epochDays.length];
+        for (int i = 0; i < size; i++) {
+            int from = (int) order[i];
+            days[i] = epochDays[from];
+            starts[i] = startMinutes[from];
+            ends[i] = endMinutes[from];
+        }
+        epochDays = days;
+        startMinutes = starts;
+        endMinutes = ends;
+    }
+
+    /**
+     * Ajoute une entrée à sa place, après les entrées de même date.
+     * @param epochDay jour epoch
+     * @param startMinute heure de début en minutes
+     * @param endMinute heure de fin en minutes
+     * @return indice de l'entrée ajoutée
+     */
+    public int add(int epochDay, int startMinute, int endMinute) {
+        if (size == epochDays.length) {
+            grow();
+        }
+        int index = upperBound(epochDay);
+        int moved = size - index;
+        if (moved > 0) {
+            System.arraycopy(epochDays, index, epochDays, index + 1, moved);
+            System.arraycopy(startMinutes, index, startMinutes, index + 1, moved);
+            System.arraycopy(endMinutes, index, endMinutes, index + 1, moved);
+        }
+        epochDays[index] = epochDay;
+        startMinutes[index] = (short) startMinute;
+        endMinutes[index] = (short) endMinute;
+        size++;
+        return index;
+    }
+
+    /**
+     * @param entry entrée à ajouter
+     * @return indice de l'entrée ajoutée
+     */
+    public int add(TimesheetEntry entry) {
+        return add(entry.getEpochDay(), entry.getStartMinute(), entry.getEndMinute());
+    }
+
+    /**
+     * Supprime l'entrée à un indice.
+     * @param index indice de l'entrée
+     */
+    public void remove(int index) {
+        checkIndex(index);
+        int moved = size - index - 1;
+        if (moved > 0) {
+            System.arraycopy(epochDays, index + 1, epochDays, index, moved);
+            System.arraycopy(startMinutes, index + 1, startMinutes, index, moved);
+            System.arraycopy(endMinutes, index + 1, endMinutes, index, moved);
+        }
+        size--;
+    }
+
+    /**
+     * Vide les colonnes en conservant leur capacité.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    private void grow() {
+        int capacity = epochDays.length + (epochDays.length >> 1) + 1;
+        epochDays = Arrays.copyOf(epochDays, capacity);
+        startMinutes = Arrays.copyOf(startMinutes, capacity);
+        endMinutes = Arrays.copyOf(endMinutes, capacity);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Indice " + index + " hors limites (taille " + size + ")");
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getEpochDay(int index) {
+        checkIndex(index);
+        return epochDays[index];
+    }
+
+    public LocalDate getDate(int index) {
+        return LocalDate.ofEpochDay(getEpochDay(index));
+    }
+
+    public int getStartMinute(int index) {
+        checkIndex(index);
+        return startMinutes[index];
+    }
+
+    public int getEndMinute(int index) {
+        checkIndex(index);
+        return endMinutes[index];
+    }
+
+    /**
+     * @param index indice de l'entrée
+     * @return durée travaillée en minutes (travail de nuit compris)
+     */
+    public int getWorkedMinutes(int index) {
+        checkIndex(index);
+        return TimesheetEntry.workedMinutes(startMinutes[index], endMinutes[index]);
+    }
+
+    /**
+     * @param epochDay jour epoch
+     * @return indice de la première entrée de ce jour ou d'un jour postérieur
+     */
+    public int lowerBound(int epochDay) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (epochDays[middle] < epochDay) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param epochDay jour epoch
+     * @return indice de la première entrée d'un jour postérieur
+     */
+    public int upperBound(int epochDay) {
+        return lowerBound(epochDay + 1);
+    }
+
+    /**
+     * Total des minutes travaillées entre deux jours inclus, par parcours des colonnes.
+     * @param fromDay premier jour epoch
+     * @param toDay dernier jour epoch
+     * @return total des minutes
+     */
+    public int totalMinutesBetween(int fromDay, int toDay) {
+        int total = 0;
+        int end = upperBound(toDay);
+        for (int i = lowerBound(fromDay); i < end; i++) {
+            total += TimesheetEntry.workedMinutes(startMinutes[i], endMinutes[i]);
+        }
+        return total;
+    }
+
+    /**
+     * @param epochDay jour epoch
+     * @return total des minutes travaillées ce jour
+     */
+    public int totalMinutesForDay(int epochDay) {
+        return totalMinutesBetween(epochDay, epochDay);
+    }
+
+    /**
+     * Reçoit les totaux d'un jour lors d'un parcours des colonnes.
+     */
+    @FunctionalInterface
+    public interface DayTotalConsumer {
+        /**
+         * @param epochDay jour epoch
+         * @param entries nombre d'entrées du jour dans la plage parcourue
+         * @param minutes total des minutes de ces entrées
+         */
+        void accept(int epochDay, int entries, int minutes);
+    }
+
+    /**
+     * Parcourt séquentiellement une plage d'indices et transmet un total par jour,
+     * dans l'ordre des dates. Un jour à cheval sur la limite de la plage est
+     * transmis en partie par chacun des parcours adjacents.
+     * @param from premier indice inclus
+     * @param to dernier indice exclu
+     * @param consumer destinataire des totaux
+     */
+    public void forEachDayTotal(int from, int to, DayTotalConsumer consumer) {
+        if (from < 0 || to > size || from > to) {
+            throw new IndexOutOfBoundsException("Plage [" + from + ", " + to + "[ hors limites (taille " + size + ")");
+        }
+        int i = from;
+        while (i < to) {
+            int day = epochDays[i];
+            int minutes = 0;
+            int start = i;
+            do {
+                minutes += TimesheetEntry.workedMinutes(startMinutes[i], endMinutes[i]);
+                i++;
+            } while (i < to && epochDays[i] == day);
+            consumer.accept(day, i - start, minutes);
+        }
+    }
+
+    /**
+     * Vue en lecture seule des colonnes sous forme de liste d'entrées.
+     * Chaque lecture crée une nouvelle entrée : la vue ne conserve rien.
+     * @return vue en liste
+     */
+    public List<TimesheetEntry> asList() {
+        return new EntryView();
+    }
+
+    private final class EntryView extends AbstractList<TimesheetEntry> implements RandomAccess {
+        @Override
+        public TimesheetEntry get(int index) {
+            checkIndex(index);
+            return TimesheetEntry.ofMinutes(LocalDate.ofEpochDay(epochDays[index]), startMinutes[index], endMinutes[index]);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -1,23 +1,47 @@
 package com.example.calculfeuilleheure.model;
 
+import com.example.calculfeuilleheure.util.HoursFormat;
+import com.example.calculfeuilleheure.util.HoursParser;
+import com.example.calculfeuilleheure.util.IsoWeekTable;
 import java.time.LocalDate;
-import java.time.temporal.WeekFields;
 import java.util.List;
 
 /**
  * Classe représentant une entrée de feuille d'heure.
  * Contient la date, l'heure de début et l'heure de fin.
+ * Les heures sont stockées en minutes depuis minuit, ce qui rend les totaux
+ * exacts ; les accesseurs en heures décimales (double) sont conservés
+ * pour compatibilité.
  */
 public class TimesheetEntry {
-    private static final WeekFields weekFields = WeekFields.ISO;
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    // Valeur de yearWeek tant que la semaine n'a pas été calculée
+    private static final int UNKNOWN_WEEK = Integer.MIN_VALUE;
     private LocalDate date;
-    private double hours;
-    private double endHours;
+    private short startMinute;
+    private short endMinute;
+    // Semaine ISO compactée de la date, calculée à la première demande
+    private int yearWeek = UNKNOWN_WEEK;
 
     public TimesheetEntry(LocalDate date, double hours, double endHours) {
         this.date = date;
-        this.hours = hours;
-        this.endHours = endHours;
+        this.startMinute = toShortMinutes(toMinutes(hours));
+        this.endMinute = toShortMinutes(toMinutes(endHours));
+    }
+
+    /**
+     * Crée une entrée à partir d'heures exprimées en minutes depuis minuit.
+     * Par exemple, 8h30 correspond à 510.
+     * @param date date de l'entrée
+     * @param startMinute heure de début en minutes
+     * @param endMinute heure de fin en minutes
+     * @return nouvelle entrée
+     */
+    public static TimesheetEntry ofMinutes(LocalDate date, int startMinute, int endMinute) {
+        TimesheetEntry entry = new TimesheetEntry(date, 0.0, 0.0);
+        entry.setStartMinute(startMinute);
+        entry.setEndMinute(endMinute);
+        return entry;
     }
 
     public LocalDate getDate() {
@@ -26,22 +50,56 @@ public class TimesheetEntry {
 
     public void setDate(LocalDate date) {
         this.date = date;
+        this.yearWeek = UNKNOWN_WEEK;
     }
 
     public double getHours() {
-        return hours;
+        return startMinute / 60.0;
     }
 
     public void setHours(double hours) {
-        this.hours = hours;
+        this.startMinute = toShortMinutes(toMinutes(hours));
     }
 
     public double getEndHours() {
-        return endHours;
+        return endMinute / 60.0;
     }
 
     public void setEndHours(double endHours) {
-        this.endHours = endHours;
+        this.endMinute = toShortMinutes(toMinutes(endHours));
+    }
+
+    public int getStartMinute() {
+        return startMinute;
+    }
+
+    public void setStartMinute(int startMinute) {
+        this.startMinute = toShortMinutes(startMinute);
+    }
+
+    public int getEndMinute() {
+        return endMinute;
+    }
+
+    public void setEndMinute(int endMinute) {
+        this.endMinute = toShortMinutes(endMinute);
+    }
+
+    /**
+     * Convertit des heures décimales en minutes, arrondies à la minute la plus proche.
+     * Par exemple, 8.5 devient 510.
+     * @param hours heures décimales
+     * @return nombre de minutes
+     */
+    public static int toMinutes(double hours) {
+        return (int) Math.round(hours * 60);
+    }
+
+    private static short toShortMinutes(int minutes) {
+        if (minutes < Short.MIN_VALUE || minutes > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Nombre de minutes hors limites : " + minutes);
+        }
+        return (short) minutes;
     }
 
     /**
@@ -51,9 +109,17 @@ public class TimesheetEntry {
      * @return chaîne au format "xxhyy"
      */
     public static String formatHours(double hours) {
-        int h = (int) hours;
-        int m = (int) Math.round((hours - h) * 60);
-        return String.format("%dh%02d", h, m);
+        return formatMinutes(toMinutes(hours));
+    }
+
+    /**
+     * Formate un nombre de minutes au format "xxhyy".
+     * Par exemple, 210 devient "3h30".
+     * @param minutes minutes à formater
+     * @return chaîne au format "xxhyy"
+     */
+    public static String formatMinutes(int minutes) {
+        return HoursFormat.format(minutes);
     }
 
     /**
@@ -62,7 +128,7 @@ public class TimesheetEntry {
      * @return chaîne au format "xxhyy"
      */
     public String getHoursFormatted() {
-        return formatHours(hours);
+        return formatMinutes(startMinute);
     }
 
     /**
@@ -71,7 +137,7 @@ public class TimesheetEntry {
      * @return chaîne au format "xxhyy"
      */
     public String getEndHoursFormatted() {
-        return formatHours(endHours);
+        return formatMinutes(endMinute);
     }
 
     /**
@@ -80,14 +146,34 @@ public class TimesheetEntry {
      * @return durée travaillée en double (heures)
      */
     public double getWorkedHours() {
+        return getWorkedMinutes() / 60.0;
+    }
+
+    /**
+     * Calcule la durée travaillée en minutes entre l'heure de début et l'heure de fin.
+     * Gère le cas du travail de nuit où l'heure de fin est plus petite que l'heure de début.
+     * @return durée travaillée en minutes
+     */
+    public int getWorkedMinutes() {
+        return workedMinutes(startMinute, endMinute);
+    }
+
+    /**
+     * Calcule la durée travaillée en minutes entre une heure de début et une heure de fin,
+     * exprimées en minutes depuis minuit (voir {@link #getWorkedMinutes()}).
+     * @param startMinute heure de début en minutes
+     * @param endMinute heure de fin en minutes
+     * @return durée travaillée en minutes
+     */
+    public static int workedMinutes(int startMinute, int endMinute) {
         // Cas du travail de nuit : si l'heure de fin est plus petite que l'heure de début,
         // cela signifie qu'on a travaillé après minuit (ex: 22h à 6h)
-        if (endHours < hours) {
+        if (endMinute < startMinute) {
             // Ajouter 24 heures à l'heure de fin pour calculer correctement la durée
-            return (endHours + 24.0) - hours;
+            return (endMinute + MINUTES_PER_DAY) - startMinute;
         } else {
             // Cas normal : soustraction directe
-            return endHours - hours;
+            return endMinute - startMinute;
         }
     }
 
@@ -96,22 +182,42 @@ public class TimesheetEntry {
      * @return durée travaillée formatée en chaîne
      */
     public String getWorkedHoursFormatted() {
-        return formatHours(getWorkedHours());
+        return formatMinutes(getWorkedMinutes());
     }
 
     /**
      * Calcule le total des heures travaillées pour une date donnée.
      * Méthode statique utilitaire pour calculer la somme des heures travaillées
-     * pour toutes les entrées d'une même date.
+     * pour toutes les entrées d'une même date. Comme les autres méthodes sur une
+     * liste d'entrées, elle délègue à l'index de {@link TimesheetRepository} si la
+     * liste en est un, et parcourt sinon la liste une fois : pour des appels
+     * répétés (une fois par ligne), passer un dépôt.
      * @param entries liste de toutes les entrées
      * @param date date pour laquelle calculer le total
      * @return total des heures travaillées pour cette date
      */
     public static double calculateTotalHoursForDate(List<TimesheetEntry> entries, LocalDate date) {
-        return entries.stream()
-                .filter(entry -> entry.getDate().equals(date))
-                .mapToDouble(TimesheetEntry::getWorkedHours)
-                .sum();
+        return calculateTotalMinutesForDate(entries, date) / 60.0;
+    }
+
+    /**
+     * Calcule le total exact des minutes travaillées pour une date donnée.
+     * @param entries liste de toutes les entrées
+     * @param date date pour laquelle calculer le total
+     * @return total des minutes travaillées pour cette date
+     */
+    public static int calculateTotalMinutesForDate(List<TimesheetEntry> entries, LocalDate date) {
+        if (entries instanceof TimesheetRepository) {
+            return ((TimesheetRepository) entries).totalMinutesForDate(date);
+        }
+        int epochDay = (int) date.toEpochDay();
+        int total = 0;
+        for (TimesheetEntry entry : entries) {
+            if (entry.getEpochDay() == epochDay) {
+                total += entry.getWorkedMinutes();
+            }
+        }
+        return total;
     }
 
     /**
@@ -120,11 +226,17 @@ public class TimesheetEntry {
      * @return true si cette entrée fait partie d'un groupe de plusieurs entrées pour la même date
      */
     public boolean isPartOfGroup(List<TimesheetEntry> entries) {
-        long countForDate = entries.stream()
-                .map(TimesheetEntry::getDate)
-                .filter(d -> d.equals(this.date))
-                .count();
-        return countForDate > 1;
+        if (entries instanceof TimesheetRepository) {
+            return ((TimesheetRepository) entries).isPartOfGroup(this);
+        }
+        int epochDay = getEpochDay();
+        int count = 0;
+        for (TimesheetEntry entry : entries) {
+            if (entry.getEpochDay() == epochDay && ++count > 1) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -136,6 +248,15 @@ public class TimesheetEntry {
         return formatHours(totalHours);
     }
 
+    /**
+     * Formate un total de minutes en format "xxhyy".
+     * @param totalMinutes total des minutes à formater
+     * @return chaîne au format "xxhyy"
+     */
+    public static String formatTotalMinutes(int totalMinutes) {
+        return formatMinutes(totalMinutes);
+    }
+
     /**
      * Parse une chaîne au format "xxhyy" en double (heures + minutes/60).
      * Exemple : "8h30" -> 8.5
@@ -144,16 +265,22 @@ public class TimesheetEntry {
      * @throws NumberFormatException si le format est invalide
      */
     public static double parseHours(String hoursText) throws NumberFormatException {
-        String[] parts = hoursText.split("h");
-        if (parts.length != 2) {
-            throw new NumberFormatException("Format invalide : doit être xxhyy");
-        }
-        int hours = Integer.parseInt(parts[0]);
-        int minutes = Integer.parseInt(parts[1]);
-        if (minutes < 0 || minutes >= 60) {
-            throw new NumberFormatException("Minutes invalides : doivent être entre 00 et 59");
+        return parseMinutes(hoursText) / 60.0;
+    }
+
+    /**
+     * Parse une chaîne au format "xxhyy" (ou "xx:yy") en minutes depuis minuit.
+     * Exemple : "8h30" -> 510
+     * @param hoursText chaîne au format "xxhyy"
+     * @return nombre de minutes
+     * @throws NumberFormatException si le format est invalide
+     */
+    public static int parseMinutes(String hoursText) throws NumberFormatException {
+        int minutes = HoursParser.parse(hoursText);
+        if (minutes == HoursParser.INVALID) {
+            throw new NumberFormatException("Format invalide : doit être xxhyy avec des minutes entre 00 et 59");
         }
-        return hours + minutes / 60.0;
+        return minutes;
     }
 
     /**
@@ -161,7 +288,7 @@ public class TimesheetEntry {
      * @return numéro de semaine (1-53)
      */
     public int getWeekNumber() {
-        return date.get(weekFields.weekOfYear());
+        return Math.floorMod(getYearWeek(), 100);
     }
 
     /**
@@ -169,7 +296,49 @@ public class TimesheetEntry {
      * @return année de la semaine
      */
     public int getWeekYear() {
-        return date.get(weekFields.weekBasedYear());
+        return Math.floorDiv(getYearWeek(), 100);
+    }
+
+    /**
+     * Obtient la clé compacte de semaine ISO pour cette entrée.
+     * Calculée une fois par date, puis mémorisée jusqu'au prochain {@link #setDate(LocalDate)}.
+     * @return année et numéro de semaine compactés (voir {@link #yearWeek(int, int)})
+     */
+    public int getYearWeek() {
+        int week = yearWeek;
+        if (week == UNKNOWN_WEEK) {
+            week = IsoWeekTable.yearWeek(getEpochDay());
+            yearWeek = week;
+        }
+        return week;
+    }
+
+    /**
+     * Obtient la clé compacte de semaine ISO d'une date.
+     * @param date date
+     * @return année et numéro de semaine compactés (voir {@link #yearWeek(int, int)})
+     */
+    public static int yearWeek(LocalDate date) {
+        return IsoWeekTable.yearWeek((int) date.toEpochDay());
+    }
+
+    /**
+     * Obtient le jour de cette entrée en nombre de jours depuis le 01/01/1970.
+     * @return jour epoch de la date
+     */
+    public int getEpochDay() {
+        return (int) date.toEpochDay();
+    }
+
+    /**
+     * Compacte une année et un numéro de semaine ISO en un entier unique.
+     * Par exemple, la semaine 3 de 2025 devient 202503.
+     * @param weekYear année de la semaine
+     * @param weekNumber numéro de la semaine
+     * @return clé de semaine compactée
+     */
+    public static int yearWeek(int weekYear, int weekNumber) {
+        return weekYear * 100 + weekNumber;
     }
 
     /**
@@ -180,25 +349,52 @@ public class TimesheetEntry {
      * @return total des heures travaillées pour cette semaine
      */
     public static double calculateTotalHoursForWeek(List<TimesheetEntry> entries, int weekYear, int weekNumber) {
-        return entries.stream()
-                .filter(entry -> entry.getWeekYear() == weekYear && entry.getWeekNumber() == weekNumber)
-                .mapToDouble(TimesheetEntry::getWorkedHours)
-                .sum();
+        return calculateTotalMinutesForWeek(entries, weekYear, weekNumber) / 60.0;
+    }
+
+    /**
+     * Calcule le total exact des minutes travaillées pour une semaine donnée.
+     * @param entries liste de toutes les entrées
+     * @param weekYear année de la semaine
+     * @param weekNumber numéro de la semaine
+     * @return total des minutes travaillées pour cette semaine
+     */
+    public static int calculateTotalMinutesForWeek(List<TimesheetEntry> entries, int weekYear, int weekNumber) {
+        if (entries instanceof TimesheetRepository) {
+            return ((TimesheetRepository) entries).totalMinutesForWeek(weekYear, weekNumber);
+        }
+        int week = yearWeek(weekYear, weekNumber);
+        int total = 0;
+        for (TimesheetEntry entry : entries) {
+            if (entry.getYearWeek() == week) {
+                total += entry.getWorkedMinutes();
+            }
+        }
+        return total;
     }
 
     /**
      * Vérifie si cette entrée est la dernière de sa semaine (date la plus récente).
      * @param entries liste de toutes les entrées
-     * @return true si cette entrée est la dernière de sa semaine
+     * @return true si la date de cette entrée est la plus récente des entrées de sa
+     *         semaine dans la liste ; false si la liste n'a aucune entrée à cette date
      */
     public boolean isLastInWeek(List<TimesheetEntry> entries) {
-        int myWeekYear = getWeekYear();
-        int myWeekNumber = getWeekNumber();
-        LocalDate maxDateInWeek = entries.stream()
-                .filter(entry -> entry.getWeekYear() == myWeekYear && entry.getWeekNumber() == myWeekNumber)
-                .map(TimesheetEntry::getDate)
-                .max(LocalDate::compareTo)
-                .orElse(null);
-        return maxDateInWeek != null && date.equals(maxDateInWeek);
+        if (entries instanceof TimesheetRepository) {
+            return ((TimesheetRepository) entries).isLastInWeek(this);
+        }
+        int week = getYearWeek();
+        int epochDay = getEpochDay();
+        boolean found = false;
+        for (TimesheetEntry entry : entries) {
+            if (entry.getYearWeek() == week) {
+                int day = entry.getEpochDay();
+                if (day > epochDay) {
+                    return false;
+                }
+                found |= day == epochDay;
+            }
+        }
+        return found;
     }
 }
@@ -0,0 +1,195 @@
+package com.example.calculfeuilleheure.model;
+
+import com.example.calculfeuilleheure.util.IntIntHashMap;
+
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.RandomAccess;
+import java.util.TreeMap;
+
+/**
+ * Liste d'entrées indexée par date et par semaine.
+ * Conserve l'ordre d'insertion comme une liste classique, et maintient en plus
+ * un index trié des jours (nombre d'entrées et total par jour) et un total par
+ * semaine ISO, afin de répondre en O(log n) ou O(1) aux questions posées pour
+ * chaque ligne du tableau : total du jour, total de la semaine, appartenance à
+ * un groupe et dernière date de la semaine. Les méthodes de
+ * {@link TimesheetEntry} prenant une liste d'entrées lui délèguent lorsque la
+ * liste fournie est un dépôt.
+ * <p>
+ * Les entrées ne doivent pas être modifiées tant qu'elles sont dans le dépôt :
+ * pour changer une entrée, la remplacer via {@link #set(int, TimesheetEntry)}.
+ */
+public class TimesheetRepository extends AbstractList<TimesheetEntry> implements RandomAccess {
+
+    private final List<Indexed> entries = new ArrayList<>();
+
+    // Index trié des jours (epoch-day) ayant au moins une entrée
+    private final NavigableMap<Integer, DayBucket> days = new TreeMap<>();
+
+    // Total des minutes par semaine (clé année-semaine compactée)
+    private final IntIntHashMap weekTotals = new IntIntHashMap();
+
+    /**
+     * Entrée accompagnée des clés sous lesquelles elle a été indexée.
+     */
+    private static final class Indexed {
+        private final TimesheetEntry entry;
+        private final int epochDay;
+        private final int yearWeek;
+        private final int workedMinutes;
+
+        private Indexed(TimesheetEntry entry) {
+            this.entry = entry;
+            this.epochDay = entry.getEpochDay();
+            this.yearWeek = entry.getYearWeek();
+            this.workedMinutes = entry.getWorkedMinutes();
+        }
+    }
+
+    /**
+     * Compteur et total des minutes pour un jour.
+     */
+    private static final class DayBucket {
+        private int count;
+        private int minutes;
+    }
+
+    public TimesheetRepository() {
+    }
+
+    /**
+     * @param entries entrées initiales
+     */
+    public TimesheetRepository(Collection<TimesheetEntry> entries) {
+        addAll(entries);
+    }
+
+    @Override
+    public TimesheetEntry get(int index) {
+        return entries.get(index).entry;
+    }
+
+    @Override
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public void add(int index, TimesheetEntry entry) {
+        Indexed indexed = new Indexed(entry);
+        entries.add(index, indexed);
+        index(indexed);
+        modCount++;
+    }
+
+    @Override
+    public TimesheetEntry set(int index, TimesheetEntry entry) {
+        Indexed indexed = new Indexed(entry);
+        Indexed previous = entries.set(index, indexed);
+        unindex(previous);
+        index(indexed);
+        return previous.entry;
+    }
+
+    @Override
+    public TimesheetEntry remove(int index) {
+        Indexed removed = entries.remove(index);
+        unindex(removed);
+        modCount++;
+        return removed.entry;
+    }
+
+    @Override
+    public void clear() {
+        entries.clear();
+        days.clear();
+        weekTotals.clear();
+        modCount++;
+    }
+
+    private void index(Indexed indexed) {
+        DayBucket bucket = days.computeIfAbsent(indexed.epochDay, d -> new DayBucket());
+        bucket.count++;
+        bucket.minutes += indexed.workedMinutes;
+        weekTotals.addTo(indexed.yearWeek, indexed.workedMinutes);
+    }
+
+    private void unindex(Indexed indexed) {
+        DayBucket bucket = days.get(indexed.epochDay);
+        if (--bucket.count == 0) {
+            days.remove(indexed.epochDay);
+        } else {
+            bucket.minutes -= indexed.workedMinutes;
+        }
+        if (weekTotals.addTo(indexed.yearWeek, -indexed.workedMinutes) == 0) {
+            weekTotals.remove(indexed.yearWeek);
+        }
+    }
+
+    /**
+     * @param date date
+     * @return nombre d'entrées à cette date
+     */
+    public int countForDate(LocalDate date) {
+        DayBucket bucket = days.get((int) date.toEpochDay());
+        return bucket == null ? 0 : bucket.count;
+    }
+
+    /**
+     * @param date date
+     * @return total des minutes travaillées à cette date
+     */
+    public int totalMinutesForDate(LocalDate date) {
+        DayBucket bucket = days.get((int) date.toEpochDay());
+        return bucket == null ? 0 : bucket.minutes;
+    }
+
+    /**
+     * @param weekYear année de la semaine ISO
+     * @param weekNumber numéro de la semaine ISO
+     * @return total des minutes travaillées pendant cette semaine
+     */
+    public int totalMinutesForWeek(int weekYear, int weekNumber) {
+        return weekTotals.get(TimesheetEntry.yearWeek(weekYear, weekNumber), 0);
+    }
+
+    /**
+     * Total des minutes travaillées entre deux dates incluses, par parcours de l'index trié.
+     * @param from première date
+     * @param to dernière date
+     * @return total des minutes travaillées sur la période
+     */
+    public int totalMinutesBetween(LocalDate from, LocalDate to) {
+        int total = 0;
+        for (DayBucket bucket : days.subMap((int) from.toEpochDay(), true, (int) to.toEpochDay(), true).values()) {
+            total += bucket.minutes;
+        }
+        return total;
+    }
+
+    /**
+     * @param entry entrée
+     * @return true si plusieurs entrées du dépôt partagent la date de cette entrée
+     */
+    public boolean isPartOfGroup(TimesheetEntry entry) {
+        return countForDate(entry.getDate()) > 1;
+    }
+
+    /**
+     * Vérifie si la date de l'entrée est la plus récente de sa semaine dans le dépôt.
+     * @param entry entrée
+     * @return true si aucune entrée du dépôt n'est postérieure dans la même semaine
+     */
+    public boolean isLastInWeek(TimesheetEntry entry) {
+        int day = entry.getEpochDay();
+        // Dimanche de la semaine ISO (le 01/01/1970 était un jeudi)
+        int sunday = day + 6 - Math.floorMod(day + 3, 7);
+        Integer last = days.floorKey(sunday);
+        return last != null && last == day;
+    }
+}
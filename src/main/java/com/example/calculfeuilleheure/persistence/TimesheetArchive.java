@@ -0,0 +1,370 @@
+package com.example.calculfeuilleheure.persistence;
+
+import com.example.calculfeuilleheure.model.TimesheetEntry;
+import com.example.calculfeuilleheure.util.IntIntHashMap;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Archive binaire compacte de l'historique d'une feuille d'heure, lue par
+ * projection en mémoire (mmap).
+ * <p>
+ * Les entrées sont triées par date puis par heure de début et rangées par blocs
+ * de taille fixe. Dans un bloc, chaque entrée est codée en entiers de longueur
+ * variable (varint) : écart en jours avec l'entrée précédente, écart de l'heure
+ * de début (zigzag) et durée, dont se déduit l'heure de fin. Une entrée occupe
+ * ainsi en général 3 à 5 octets, contre 8 dans l'instantané de {@link TimesheetStore}.
+ * <p>
+ * Chaque bloc se termine par les totaux des semaines ISO de ses entrées, en
+ * entiers de taille fixe : les totaux hebdomadaires se lisent sans décoder les
+ * entrées. Une semaine à cheval sur deux blocs y apparaît deux fois, ses
+ * totaux partiels étant additionnés à la lecture. Un index des blocs (position,
+ * premier et dernier jour) en fin de fichier permet de ne décoder que les blocs
+ * d'une période.
+ * <p>
+ * Structure, en gros-boutiste : en-tête (magic, version), blocs (nombre
+ * d'entrées, taille des entrées, nombre de semaines, entrées, totaux), index,
+ * puis fin de fichier (position de l'index, nombre de blocs, nombre d'entrées,
+ * magic). L'ordre d'origine des entrées n'est pas conservé.
+ */
+public final class TimesheetArchive {
+
+    /** Extension des fichiers d'archive. */
+    public static final String EXTENSION = ".archive";
+
+    /** Nombre d'entrées par bloc. */
+    public static final int DEFAULT_BLOCK_SIZE = 4096;
+
+    private static final int MAGIC = 0x46444841; // "FDHA"
+    private static final int VERSION = 1;
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    // En-tête : magic, version
+    private static final int HEADER_SIZE = 4 + 4;
+    // En-tête de bloc : nombre d'entrées, taille des entrées en octets, nombre de semaines
+    private static final int BLOCK_HEADER_SIZE = 4 + 4 + 4;
+    // Total de semaine : année * 100 + semaine, minutes
+    private static final int WEEK_TOTAL_SIZE = 4 + 4;
+    // Index : position du bloc, premier jour, dernier jour
+    private static final int INDEX_RECORD_SIZE = 4 + 4 + 4;
+    // Fin de fichier : position de l'index, nombre de blocs, nombre d'entrées, magic
+    private static final int TRAILER_SIZE = 4 + 4 + 4 + 4;
+    // Taille maximale d'une entrée codée : écart de jours, écart de début, durée
+    private static final int MAX_ENTRY_SIZE = 5 + 2 + 2;
+
+    private static final Comparator<TimesheetEntry> CHRONOLOGICAL = Comparator
+            .comparingInt(TimesheetEntry::getEpochDay)
+            .thenComparingInt(TimesheetEntry::getStartMinute)
+            .thenComparingInt(TimesheetEntry::getEndMinute);
+
+    private final Path file;
+    private final ByteBuffer buffer;
+    private final int indexOffset;
+    private final int blockCount;
+    private final int entryCount;
+
+    private TimesheetArchive(Path file, ByteBuffer buffer, int indexOffset, int blockCount, int entryCount) {
+        this.file = file;
+        this.buffer = buffer;
+        this.indexOffset = indexOffset;
+        this.blockCount = blockCount;
+        this.entryCount = entryCount;
+    }
+
+    /**
+     * Écrit une archive des entrées, avec des blocs de {@value #DEFAULT_BLOCK_SIZE} entrées.
+     * @param entries entrées à archiver, dans un ordre quelconque
+     * @param file fichier d'archive, remplacé s'il existe
+     * @throws IllegalArgumentException si une heure d'entrée n'est pas comprise entre 0h00 et 23h59
+     * @throws IOException en cas d'erreur d'écriture
+     */
+    public static void write(Collection<TimesheetEntry> entries, Path file) throws IOException {
+        write(entries, file, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Écrit une archive des entrées. Le fichier est remplacé atomiquement :
+     * une archive présente est toujours complète.
+     * @param entries entrées à archiver, dans un ordre quelconque
+     * @param file fichier d'archive, remplacé s'il existe
+     * @param blockSize nombre d'entrées par bloc
+     * @throws IllegalArgumentException si une heure d'entrée n'est pas comprise entre 0h00 et 23h59 :
+     *         le format ne code que les heures d'une journée, aucun fichier n'est alors créé
+     * @throws IOException en cas d'erreur d'écriture
+     */
+    public static void write(Collection<TimesheetEntry> entries, Path file, int blockSize) throws IOException {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Taille de bloc invalide : " + blockSize);
+        }
+        for (TimesheetEntry entry : entries) {
+            if (!isTimeOfDay(entry.getStartMinute()) || !isTimeOfDay(entry.getEndMinute())) {
+                throw new IllegalArgumentException("Entrée du " + entry.getDate() + " non archivable : heures "
+                        + entry.getHoursFormatted() + " - " + entry.getEndHoursFormatted() + " hors de 0h00 à 23h59");
+            }
+        }
+        List<TimesheetEntry> sorted = new ArrayList<>(entries);
+        sorted.sort(CHRONOLOGICAL);
+
+        int blocks = (sorted.size() + blockSize - 1) / blockSize;
+        ByteBuffer index = ByteBuffer.allocate(blocks * INDEX_RECORD_SIZE + TRAILER_SIZE);
+        // Au plus une semaine par entrée
+        ByteBuffer block = ByteBuffer.allocate(BLOCK_HEADER_SIZE + blockSize * (MAX_ENTRY_SIZE + WEEK_TOTAL_SIZE));
+        IntIntHashMap weekTotals = new IntIntHashMap();
+
+        Path tempPath = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION);
+            write(channel, header);
+
+            long offset = HEADER_SIZE;
+            for (int from = 0; from < sorted.size(); from += blockSize) {
+                List<TimesheetEntry> blockEntries = sorted.subList(from, Math.min(from + blockSize, sorted.size()));
+                int firstDay = blockEntries.get(0).getEpochDay();
+                int lastDay = blockEntries.get(blockEntries.size() - 1).getEpochDay();
+
+                // Entrées, après l'en-tête complété une fois leur taille connue
+                block.position(BLOCK_HEADER_SIZE);
+                weekTotals.clear();
+                int previousDay = firstDay;
+                int previousStart = 0;
+                for (TimesheetEntry entry : blockEntries) {
+                    putVarint(block, entry.getEpochDay() - previousDay);
+                    putVarint(block, zigzag(entry.getStartMinute() - previousStart));
+                    putVarint(block, entry.getWorkedMinutes());
+                    previousDay = entry.getEpochDay();
+                    previousStart = entry.getStartMinute();
+                    weekTotals.addTo(entry.getYearWeek(), entry.getWorkedMinutes());
+                }
+                int entriesLength = block.position() - BLOCK_HEADER_SIZE;
+
+                // Totaux des semaines, dans l'ordre chronologique
+                int[] weeks = weekTotals.sortedKeys();
+                for (int yearWeek : weeks) {
+                    block.putInt(yearWeek).putInt(weekTotals.get(yearWeek, 0));
+                }
+                block.putInt(0, blockEntries.size()).putInt(4, entriesLength).putInt(8, weeks.length);
+
+                index.putInt(checkedOffset(offset)).putInt(firstDay).putInt(lastDay);
+                offset += block.position();
+                write(channel, block);
+            }
+
+            index.putInt(checkedOffset(offset)).putInt(blocks).putInt(sorted.size()).putInt(MAGIC);
+            write(channel, index);
+            channel.force(false);
+        }
+        Files.move(tempPath, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static boolean isTimeOfDay(int minutes) {
+        return minutes >= 0 && minutes < MINUTES_PER_DAY;
+    }
+
+    /**
+     * Ouvre une archive en la projetant en mémoire ; seules sa structure et son
+     * index sont vérifiés, les blocs sont lus à la demande.
+     * @param file fichier d'archive
+     * @return archive ouverte
+     * @throws IOException si le fichier ne peut pas être lu ou n'est pas une archive valide
+     */
+    public static TimesheetArchive open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE + TRAILER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("Archive invalide : " + file);
+            }
+            // La projection reste valable après la fermeture du canal
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt((int) size - 4) != MAGIC) {
+                throw new IOException("Archive invalide : " + file);
+            }
+            int version = buffer.getInt(4);
+            if (version != VERSION) {
+                throw new IOException("Version d'archive non supportée : " + version);
+            }
+            int trailer = (int) size - TRAILER_SIZE;
+            int indexOffset = buffer.getInt(trailer);
+            int blockCount = buffer.getInt(trailer + 4);
+            int entryCount = buffer.getInt(trailer + 8);
+            if (indexOffset < HEADER_SIZE || blockCount < 0 || entryCount < 0
+                    || (long) indexOffset + (long) blockCount * INDEX_RECORD_SIZE != trailer) {
+                throw new IOException("Archive tronquée ou corrompue : " + file);
+            }
+            return new TimesheetArchive(file, buffer, indexOffset, blockCount, entryCount);
+        }
+    }
+
+    /**
+     * @return nombre d'entrées archivées
+     */
+    public int size() {
+        return entryCount;
+    }
+
+    /**
+     * @return nombre de blocs de l'archive
+     */
+    public int getBlockCount() {
+        return blockCount;
+    }
+
+    /**
+     * Décode toutes les entrées.
+     * @return entrées triées par date puis par heure de début
+     * @throws IOException si un bloc est corrompu
+     */
+    public List<TimesheetEntry> readAll() throws IOException {
+        List<TimesheetEntry> entries = new ArrayList<>(entryCount);
+        for (int i = 0; i < blockCount; i++) {
+            readBlock(i, entries);
+        }
+        return entries;
+    }
+
+    /**
+     * Décode les entrées d'une période ; seuls les blocs qui la recouvrent sont lus.
+     * @param from premier jour de la période (inclus)
+     * @param to fin de la période (exclue)
+     * @return entrées de la période, triées par date puis par heure de début
+     * @throws IOException si un bloc est corrompu
+     */
+    public List<TimesheetEntry> read(LocalDate from, LocalDate to) throws IOException {
+        int fromDay = (int) from.toEpochDay();
+        int toDay = (int) to.toEpochDay();
+        List<TimesheetEntry> entries = new ArrayList<>();
+        for (int i = 0; i < blockCount && firstDay(i) < toDay; i++) {
+            if (lastDay(i) < fromDay) {
+                continue;
+            }
+            int blockStart = entries.size();
+            readBlock(i, entries);
+            // Les blocs aux bornes de la période débordent
+            entries.subList(blockStart, entries.size())
+                    .removeIf(entry -> entry.getEpochDay() < fromDay || entry.getEpochDay() >= toDay);
+        }
+        return entries;
+    }
+
+    /**
+     * Totaux hebdomadaires lus dans les pieds de blocs, sans décoder les entrées.
+     * @return minutes travaillées par semaine ISO, clé {@code année * 100 + semaine}
+     *         (voir {@link TimesheetEntry#getYearWeek()})
+     */
+    public IntIntHashMap weeklyTotals() {
+        IntIntHashMap totals = new IntIntHashMap();
+        for (int i = 0; i < blockCount; i++) {
+            int offset = blockOffset(i);
+            int entriesLength = buffer.getInt(offset + 4);
+            int weekCount = buffer.getInt(offset + 8);
+            int position = offset + BLOCK_HEADER_SIZE + entriesLength;
+            for (int w = 0; w < weekCount; w++, position += WEEK_TOTAL_SIZE) {
+                totals.addTo(buffer.getInt(position), buffer.getInt(position + 4));
+            }
+        }
+        return totals;
+    }
+
+    private void readBlock(int blockIndex, List<TimesheetEntry> entries) throws IOException {
+        int offset = blockOffset(blockIndex);
+        ByteBuffer block = buffer.duplicate();
+        block.position(offset);
+        try {
+            int count = block.getInt();
+            int entriesLength = block.getInt();
+            block.getInt();
+            int end = block.position() + entriesLength;
+            int day = firstDay(blockIndex);
+            int start = 0;
+            for (int i = 0; i < count; i++) {
+                day += getVarint(block);
+                start += unzigzag(getVarint(block));
+                int worked = getVarint(block);
+                if (start < 0 || start >= MINUTES_PER_DAY || worked < 0 || worked >= MINUTES_PER_DAY) {
+                    throw new IOException("Bloc " + blockIndex + " corrompu : " + file);
+                }
+                entries.add(TimesheetEntry.ofMinutes(LocalDate.ofEpochDay(day), start, (start + worked) % MINUTES_PER_DAY));
+            }
+            if (block.position() != end) {
+                throw new IOException("Bloc " + blockIndex + " corrompu : " + file);
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Bloc " + blockIndex + " corrompu : " + file, e);
+        }
+    }
+
+    private int blockOffset(int blockIndex) {
+        return buffer.getInt(indexOffset + blockIndex * INDEX_RECORD_SIZE);
+    }
+
+    private int firstDay(int blockIndex) {
+        return buffer.getInt(indexOffset + blockIndex * INDEX_RECORD_SIZE + 4);
+    }
+
+    private int lastDay(int blockIndex) {
+        return buffer.getInt(indexOffset + blockIndex * INDEX_RECORD_SIZE + 8);
+    }
+
+    private static int checkedOffset(long offset) throws IOException {
+        if (offset > Integer.MAX_VALUE) {
+            throw new IOException("Archive trop volumineuse pour être projetée en mémoire");
+        }
+        return (int) offset;
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Écrit un entier non signé sur 1 à 5 octets, 7 bits par octet, poids faibles d'abord.
+     */
+    static void putVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static int getVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint trop long");
+    }
+
+    /**
+     * Entier signé rendu positif, les petites valeurs absolues restant petites : 0, -1, 1, -2...
+     */
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
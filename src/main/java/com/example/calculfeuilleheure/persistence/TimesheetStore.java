@@ -0,0 +1,457 @@
+package com.example.calculfeuilleheure.persistence;
+
+import com.example.calculfeuilleheure.model.TimesheetEntry;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Stockage sur disque des entrées de la feuille d'heure.
+ * <p>
+ * Chaque ajout ou suppression dans la liste observée est écrit sous forme
+ * d'enregistrement binaire compact dans un journal en ajout seul ; les écritures
+ * d'un même changement de liste sont regroupées et synchronisées (fsync) une
+ * seule fois. Le journal est périodiquement compacté en un instantané contenant
+ * l'état complet. Au démarrage, l'instantané est projeté en mémoire (mmap) puis
+ * la fin du journal est rejouée.
+ * <p>
+ * Un numéro de génération, écrit dans l'en-tête des deux fichiers, garantit
+ * qu'un journal antérieur au dernier instantané n'est jamais rejoué. Chaque
+ * instantané porte sa génération dans son nom ({@code timesheet-<génération>.snapshot}) :
+ * un fichier encore projeté en mémoire n'est jamais remplacé, ce que Windows
+ * refuse tant que la projection n'a pas été libérée par le ramasse-miettes.
+ * Les instantanés précédents sont supprimés dès que possible et, au
+ * chargement, le plus récent instantané valide est retenu.
+ */
+public class TimesheetStore implements Closeable {
+
+    static final String JOURNAL_FILE = "timesheet.journal";
+    // Instantané unique des versions précédentes, lu s'il n'en existe pas d'autre
+    static final String LEGACY_SNAPSHOT_FILE = "timesheet.snapshot";
+    private static final String SNAPSHOT_PREFIX = "timesheet-";
+    private static final String SNAPSHOT_SUFFIX = ".snapshot";
+
+    private static final int SNAPSHOT_MAGIC = 0x46444853; // "FDHS"
+    private static final int JOURNAL_MAGIC = 0x4644484A; // "FDHJ"
+    private static final int VERSION = 1;
+
+    // En-tête instantané : magic, version, génération, nombre d'entrées
+    private static final int SNAPSHOT_HEADER_SIZE = 4 + 4 + 8 + 4;
+    // Enregistrement instantané : jour epoch, début, fin
+    private static final int SNAPSHOT_RECORD_SIZE = 4 + 2 + 2;
+    // En-tête journal : magic, version, génération
+    private static final int JOURNAL_HEADER_SIZE = 4 + 4 + 8;
+    // Enregistrement journal : opération, position dans la liste, jour epoch, début, fin
+    private static final int JOURNAL_RECORD_SIZE = 1 + 4 + 4 + 2 + 2;
+
+    private static final byte OP_ADD = 1;
+    private static final byte OP_REMOVE = 2;
+
+    /**
+     * Nombre d'enregistrements du journal au-delà duquel il est compacté.
+     */
+    public static final int DEFAULT_COMPACTION_THRESHOLD = 50_000;
+
+    private final Path directory;
+    private final int compactionThreshold;
+    private final ByteBuffer pending = ByteBuffer.allocate(JOURNAL_RECORD_SIZE * 4096);
+    private final ListChangeListener<TimesheetEntry> listener = this::onChanged;
+
+    private FileChannel journal;
+    private long generation;
+    private int journalRecords;
+    private ObservableList<TimesheetEntry> attached;
+    private Consumer<IOException> errorHandler = e -> { };
+
+    /**
+     * @param directory répertoire contenant l'instantané et le journal
+     */
+    public TimesheetStore(Path directory) {
+        this(directory, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * @param directory répertoire contenant l'instantané et le journal
+     * @param compactionThreshold nombre d'enregistrements du journal déclenchant une compaction
+     */
+    public TimesheetStore(Path directory, int compactionThreshold) {
+        this.directory = directory;
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    /**
+     * Définit le traitement des erreurs d'écriture survenant lors d'un changement de liste.
+     * @param errorHandler traitement appelé avec l'erreur
+     */
+    public void setErrorHandler(Consumer<IOException> errorHandler) {
+        this.errorHandler = errorHandler;
+    }
+
+    /**
+     * Charge les entrées enregistrées : lecture de l'instantané, puis rejeu du journal.
+     * Un enregistrement incomplet ou incohérent en fin de journal (arrêt brutal) est ignoré
+     * et tronqué. Le journal est ensuite ouvert pour les écritures suivantes.
+     * @return entrées enregistrées, dans l'ordre de la liste
+     * @throws IOException en cas d'erreur de lecture
+     */
+    public List<TimesheetEntry> load() throws IOException {
+        Files.createDirectories(directory);
+        List<TimesheetEntry> entries = readSnapshot();
+        long validLength = replayJournal(entries);
+        openJournal(validLength);
+        return entries;
+    }
+
+    /**
+     * Lit les entrées enregistrées dans un répertoire sans modifier ses fichiers,
+     * par exemple pour un traitement par lot.
+     * @param directory répertoire contenant l'instantané et le journal
+     * @return entrées enregistrées, dans l'ordre de la liste
+     * @throws IOException en cas d'erreur de lecture
+     */
+    public static List<TimesheetEntry> read(Path directory) throws IOException {
+        TimesheetStore store = new TimesheetStore(directory);
+        List<TimesheetEntry> entries = store.readSnapshot();
+        store.replayJournal(entries);
+        return entries;
+    }
+
+    /**
+     * Commence à enregistrer les changements de la liste. {@link #load()} doit avoir été appelée.
+     * @param entries liste observable à enregistrer
+     */
+    public void attach(ObservableList<TimesheetEntry> entries) {
+        if (journal == null) {
+            throw new IllegalStateException("load() doit être appelée avant attach()");
+        }
+        this.attached = entries;
+        entries.addListener(listener);
+    }
+
+    /**
+     * Lit le plus récent instantané valide ; un instantané illisible est ignoré
+     * au profit du précédent.
+     * @throws IOException si aucun instantané n'est lisible
+     */
+    private List<TimesheetEntry> readSnapshot() throws IOException {
+        generation = 0;
+        IOException invalid = null;
+        for (Path snapshotPath : snapshotsNewestFirst()) {
+            try {
+                return readSnapshot(snapshotPath);
+            } catch (IOException e) {
+                if (invalid == null) {
+                    invalid = e;
+                } else {
+                    invalid.addSuppressed(e);
+                }
+            }
+        }
+        if (invalid != null) {
+            throw invalid;
+        }
+        return new ArrayList<>();
+    }
+
+    private List<TimesheetEntry> readSnapshot(Path snapshotPath) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < SNAPSHOT_HEADER_SIZE || buffer.getInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Instantané invalide : " + snapshotPath);
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Version d'instantané non supportée : " + version);
+            }
+            long snapshotGeneration = buffer.getLong();
+            long named = snapshotGeneration(snapshotPath);
+            if (named >= 0 && named != snapshotGeneration) {
+                throw new IOException("Instantané invalide : " + snapshotPath);
+            }
+            int count = buffer.getInt();
+            if (buffer.remaining() < (long) count * SNAPSHOT_RECORD_SIZE) {
+                throw new IOException("Instantané tronqué : " + snapshotPath);
+            }
+            List<TimesheetEntry> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                entries.add(readEntry(buffer));
+            }
+            generation = snapshotGeneration;
+            return entries;
+        }
+    }
+
+    /**
+     * @return instantanés du répertoire, du plus récent au plus ancien, l'ancien format en dernier
+     */
+    private List<Path> snapshotsNewestFirst() throws IOException {
+        List<Path> snapshots = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return snapshots;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SNAPSHOT_PREFIX + "*" + SNAPSHOT_SUFFIX)) {
+            for (Path file : files) {
+                if (snapshotGeneration(file) >= 0) {
+                    snapshots.add(file);
+                }
+            }
+        }
+        snapshots.sort(Comparator.comparingLong(TimesheetStore::snapshotGeneration).reversed());
+        Path legacy = directory.resolve(LEGACY_SNAPSHOT_FILE);
+        if (Files.exists(legacy)) {
+            snapshots.add(legacy);
+        }
+        return snapshots;
+    }
+
+    /**
+     * @return génération indiquée par le nom d'un instantané, -1 pour l'ancien format
+     */
+    private static long snapshotGeneration(Path snapshotPath) {
+        String name = snapshotPath.getFileName().toString();
+        if (!name.startsWith(SNAPSHOT_PREFIX) || !name.endsWith(SNAPSHOT_SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(SNAPSHOT_PREFIX.length(), name.length() - SNAPSHOT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * @param generation génération de l'instantané
+     * @return fichier de l'instantané de cette génération
+     */
+    Path snapshotPath(long generation) {
+        return directory.resolve(SNAPSHOT_PREFIX + generation + SNAPSHOT_SUFFIX);
+    }
+
+    /**
+     * Rejoue le journal sur les entrées de l'instantané.
+     * @return longueur de la partie valide du journal, 0 s'il doit être réinitialisé
+     */
+    private long replayJournal(List<TimesheetEntry> entries) throws IOException {
+        Path journalPath = directory.resolve(JOURNAL_FILE);
+        journalRecords = 0;
+        if (!Files.exists(journalPath)) {
+            return 0;
+        }
+        // Lu en mémoire et non projeté : le journal est ensuite tronqué, ce que Windows
+        // refuse sur un fichier projeté
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(journalPath));
+        if (buffer.remaining() < JOURNAL_HEADER_SIZE || buffer.getInt() != JOURNAL_MAGIC
+                || buffer.getInt() != VERSION || buffer.getLong() != generation) {
+            // Journal absent, corrompu ou déjà intégré à l'instantané
+            return 0;
+        }
+        while (buffer.remaining() >= JOURNAL_RECORD_SIZE) {
+            int recordStart = buffer.position();
+            byte op = buffer.get();
+            int index = buffer.getInt();
+            TimesheetEntry entry = readEntry(buffer);
+            if (op == OP_ADD && index >= 0 && index <= entries.size()) {
+                entries.add(index, entry);
+            } else if (op == OP_REMOVE && index >= 0 && index < entries.size()
+                    && sameValues(entries.get(index), entry)) {
+                entries.remove(index);
+            } else {
+                return recordStart;
+            }
+            journalRecords++;
+        }
+        return buffer.position();
+    }
+
+    private void openJournal(long validLength) throws IOException {
+        Path journalPath = directory.resolve(JOURNAL_FILE);
+        journal = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (validLength == 0) {
+            resetJournal();
+        } else {
+            journal.truncate(validLength);
+            journal.position(validLength);
+        }
+    }
+
+    private void resetJournal() throws IOException {
+        journal.truncate(0);
+        journal.position(0);
+        ByteBuffer header = ByteBuffer.allocate(JOURNAL_HEADER_SIZE);
+        header.putInt(JOURNAL_MAGIC).putInt(VERSION).putLong(generation).flip();
+        while (header.hasRemaining()) {
+            journal.write(header);
+        }
+        journal.force(false);
+        journalRecords = 0;
+    }
+
+    private void onChanged(ListChangeListener.Change<? extends TimesheetEntry> change) {
+        boolean needsCompaction = false;
+        try {
+            while (change.next()) {
+                if (change.wasPermutated() || change.wasUpdated()) {
+                    // Non représentable dans le journal : l'état complet sera réécrit
+                    needsCompaction = true;
+                    continue;
+                }
+                int from = change.getFrom();
+                for (TimesheetEntry removed : change.getRemoved()) {
+                    append(OP_REMOVE, from, removed);
+                }
+                for (int i = from; i < change.getTo(); i++) {
+                    append(OP_ADD, i, change.getList().get(i));
+                }
+            }
+            sync();
+            if (needsCompaction || journalRecords >= compactionThreshold) {
+                compact();
+            }
+        } catch (IOException e) {
+            errorHandler.accept(e);
+        }
+    }
+
+    private void append(byte op, int index, TimesheetEntry entry) throws IOException {
+        if (pending.remaining() < JOURNAL_RECORD_SIZE) {
+            flush();
+        }
+        pending.put(op).putInt(index);
+        writeEntry(pending, entry);
+        journalRecords++;
+    }
+
+    private void flush() throws IOException {
+        pending.flip();
+        while (pending.hasRemaining()) {
+            journal.write(pending);
+        }
+        pending.clear();
+    }
+
+    /**
+     * Écrit les enregistrements en attente et les synchronise sur disque.
+     * @throws IOException en cas d'erreur d'écriture
+     */
+    public void sync() throws IOException {
+        if (pending.position() > 0) {
+            flush();
+            journal.force(false);
+        }
+    }
+
+    /**
+     * Réécrit l'état complet de la liste attachée dans un nouvel instantané,
+     * puis repart d'un journal vide.
+     * @throws IOException en cas d'erreur d'écriture
+     */
+    public void compact() throws IOException {
+        if (attached == null) {
+            return;
+        }
+        sync();
+        long nextGeneration = generation + 1;
+        Path snapshotPath = snapshotPath(nextGeneration);
+        Path tempPath = directory.resolve(snapshotPath.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(SNAPSHOT_RECORD_SIZE * 8192);
+            buffer.putInt(SNAPSHOT_MAGIC).putInt(VERSION).putLong(nextGeneration).putInt(attached.size());
+            for (TimesheetEntry entry : attached) {
+                if (buffer.remaining() < SNAPSHOT_RECORD_SIZE) {
+                    write(channel, buffer);
+                }
+                writeEntry(buffer, entry);
+            }
+            write(channel, buffer);
+            channel.force(false);
+        }
+        // Le renommage atomique rend le nouvel instantané visible d'un seul coup :
+        // en cas d'arrêt avant la réinitialisation du journal, sa génération le rend obsolète
+        Files.move(tempPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        generation = nextGeneration;
+        resetJournal();
+        deleteOlderSnapshots();
+    }
+
+    /**
+     * Supprime les instantanés antérieurs à la génération courante. Un fichier
+     * encore projeté en mémoire ne peut pas être supprimé sous Windows : il le
+     * sera lors d'une prochaine compaction.
+     */
+    private void deleteOlderSnapshots() throws IOException {
+        for (Path snapshot : snapshotsNewestFirst()) {
+            if (snapshotGeneration(snapshot) < generation) {
+                try {
+                    Files.deleteIfExists(snapshot);
+                } catch (IOException e) {
+                    // Encore projeté : sans conséquence, il n'est plus lu
+                }
+            }
+        }
+    }
+
+    /**
+     * Compacte le journal puis libère les fichiers.
+     * @throws IOException en cas d'erreur d'écriture
+     */
+    @Override
+    public void close() throws IOException {
+        if (journal == null) {
+            return;
+        }
+        try {
+            if (attached != null) {
+                attached.removeListener(listener);
+                compact();
+            } else {
+                sync();
+            }
+        } finally {
+            journal.close();
+            journal = null;
+        }
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static void writeEntry(ByteBuffer buffer, TimesheetEntry entry) {
+        buffer.putInt(entry.getEpochDay())
+                .putShort((short) entry.getStartMinute())
+                .putShort((short) entry.getEndMinute());
+    }
+
+    private static TimesheetEntry readEntry(ByteBuffer buffer) {
+        int epochDay = buffer.getInt();
+        short start = buffer.getShort();
+        short end = buffer.getShort();
+        return TimesheetEntry.ofMinutes(LocalDate.ofEpochDay(epochDay), start, end);
+    }
+
+    private static boolean sameValues(TimesheetEntry a, TimesheetEntry b) {
+        return a.getEpochDay() == b.getEpochDay()
+                && a.getStartMinute() == b.getStartMinute()
+                && a.getEndMinute() == b.getEndMinute();
+    }
+}
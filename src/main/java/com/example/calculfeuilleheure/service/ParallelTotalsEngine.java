@@ -0,0 +1,198 @@
+package com.example.calculfeuilleheure.service;
+
+import com.example.calculfeuilleheure.model.TimesheetColumns;
+import com.example.calculfeuilleheure.model.TimesheetEntry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Calcul parallèle des totaux journaliers, hebdomadaires, mensuels et annuels
+ * pour de grands volumes d'entrées (plusieurs années, plusieurs employés).
+ * <p>
+ * La liste est découpée récursivement en tranches (fork-join) ; chaque tranche
+ * est agrégée dans ses propres tables, puis les résultats partiels sont
+ * additionnés. Les totaux étant des sommes entières de minutes, le résultat
+ * est identique quel que soit le nombre de threads ou le découpage.
+ * <p>
+ * Pour la liste affichée, modifiée entrée par entrée, {@link TotalsAggregator}
+ * reste préférable : ce moteur recalcule tout à chaque appel.
+ */
+public class ParallelTotalsEngine {
+
+    /** Taille de tranche en dessous de laquelle le calcul n'est plus découpé. */
+    public static final int DEFAULT_THRESHOLD = 16 * 1024;
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    /**
+     * Moteur utilisant le pool commun.
+     */
+    public ParallelTotalsEngine() {
+        this(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * @param pool pool d'exécution
+     * @param threshold taille de tranche en dessous de laquelle le calcul est séquentiel
+     */
+    public ParallelTotalsEngine(ForkJoinPool pool, int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Seuil invalide : " + threshold);
+        }
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Calcul séquentiel de référence, dans le thread appelant.
+     * @param entries entrées
+     * @return totaux des entrées
+     */
+    public static TotalsReport aggregateSequential(List<TimesheetEntry> entries) {
+        TotalsReport report = new TotalsReport();
+        for (TimesheetEntry entry : entries) {
+            report.add(entry);
+        }
+        return report;
+    }
+
+    /**
+     * Calcule les totaux des entrées en parallèle.
+     * @param entries entrées
+     * @return totaux des entrées
+     */
+    public TotalsReport aggregate(List<TimesheetEntry> entries) {
+        return pool.invoke(task(entries));
+    }
+
+    /**
+     * Calcule les totaux d'entrées stockées en colonnes, en parallèle : les colonnes
+     * sont découpées en tranches fork-join, chacune parcourue séquentiellement. Les
+     * dates et semaines ne sont calculées qu'une fois par jour et par tranche.
+     * @param columns entrées en colonnes
+     * @return totaux des entrées
+     */
+    public TotalsReport aggregate(TimesheetColumns columns) {
+        return pool.invoke(new ColumnSliceTask(columns, 0, columns.size()));
+    }
+
+    /**
+     * Calcul séquentiel de référence sur des colonnes, dans le thread appelant.
+     * @param columns entrées en colonnes
+     * @return totaux des entrées
+     */
+    public static TotalsReport aggregateSequential(TimesheetColumns columns) {
+        TotalsReport report = new TotalsReport();
+        columns.forEachDayTotal(0, columns.size(), report::addDay);
+        return report;
+    }
+
+    /**
+     * Calcule les totaux de chaque employé, en parallèle entre employés et à
+     * l'intérieur des gros volumes. Les totaux tous employés confondus s'obtiennent
+     * avec {@link TotalsReport#combine(java.util.Collection)}.
+     * @param entriesByEmployee entrées par nom d'employé
+     * @return totaux par employé, triés par nom
+     */
+    public SortedMap<String, TotalsReport> aggregateByEmployee(Map<String, ? extends List<TimesheetEntry>> entriesByEmployee) {
+        SortedMap<String, List<TimesheetEntry>> sorted = new TreeMap<>(entriesByEmployee);
+        List<SliceTask> tasks = new ArrayList<>(sorted.size());
+        for (List<TimesheetEntry> entries : sorted.values()) {
+            tasks.add(task(entries));
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> {
+            ForkJoinTask.invokeAll(tasks);
+        }));
+
+        SortedMap<String, TotalsReport> reports = new TreeMap<>();
+        int i = 0;
+        for (String employee : sorted.keySet()) {
+            reports.put(employee, tasks.get(i++).join());
+        }
+        return reports;
+    }
+
+    private SliceTask task(List<TimesheetEntry> entries) {
+        // Le découpage par indice suppose un accès direct
+        List<TimesheetEntry> indexed = entries instanceof RandomAccess ? entries : new ArrayList<>(entries);
+        return new SliceTask(indexed, 0, indexed.size());
+    }
+
+    /**
+     * Agrégation d'une tranche [from, to[ de la liste.
+     */
+    private final class SliceTask extends RecursiveTask<TotalsReport> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<TimesheetEntry> entries;
+        private final int from;
+        private final int to;
+
+        private SliceTask(List<TimesheetEntry> entries, int from, int to) {
+            this.entries = entries;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected TotalsReport compute() {
+            if (to - from <= threshold) {
+                // Environ deux à trois entrées par jour
+                TotalsReport report = new TotalsReport((to - from) / 2 + 1);
+                for (int i = from; i < to; i++) {
+                    report.add(entries.get(i));
+                }
+                return report;
+            }
+            int middle = (from + to) >>> 1;
+            SliceTask left = new SliceTask(entries, from, middle);
+            SliceTask right = new SliceTask(entries, middle, to);
+            right.fork();
+            TotalsReport result = left.compute();
+            result.merge(right.join());
+            return result;
+        }
+    }
+
+    /**
+     * Agrégation d'une tranche [from, to[ de colonnes.
+     */
+    private final class ColumnSliceTask extends RecursiveTask<TotalsReport> {
+        private static final long serialVersionUID = 1L;
+
+        private final TimesheetColumns columns;
+        private final int from;
+        private final int to;
+
+        private ColumnSliceTask(TimesheetColumns columns, int from, int to) {
+            this.columns = columns;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected TotalsReport compute() {
+            if (to - from <= threshold) {
+                TotalsReport report = new TotalsReport((to - from) / 2 + 1);
+                columns.forEachDayTotal(from, to, report::addDay);
+                return report;
+            }
+            int middle = (from + to) >>> 1;
+            ColumnSliceTask left = new ColumnSliceTask(columns, from, middle);
+            ColumnSliceTask right = new ColumnSliceTask(columns, middle, to);
+            right.fork();
+            TotalsReport result = left.compute();
+            result.merge(right.join());
+            return result;
+        }
+    }
+}
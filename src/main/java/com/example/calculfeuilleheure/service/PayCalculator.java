@@ -0,0 +1,191 @@
+package com.example.calculfeuilleheure.service;
+
+import com.example.calculfeuilleheure.model.TimesheetColumns;
+import com.example.calculfeuilleheure.model.TimesheetEntry;
+import com.example.calculfeuilleheure.util.IntIntHashMap;
+import com.example.calculfeuilleheure.util.IsoWeekTable;
+
+/**
+ * Règles de paie compilées (voir {@link PayRules#compile()}).
+ * <p>
+ * Les minutes de nuit d'une entrée sont lues dans une table de sommes
+ * cumulées couvrant deux jours, la pause dans une table indexée par la durée
+ * travaillée : chaque entrée est évaluée en temps constant, sans allocation.
+ * Les heures supplémentaires dépendent des totaux du jour et de la semaine ;
+ * elles sont calculées par {@link #summarize(Iterable)}, ou maintenues au fil
+ * des modifications d'une liste par {@link PayTotalsAggregator}.
+ * <p>
+ * Les heures de début et de fin doivent être comprises entre 0h00 et 23h59,
+ * comme celles produites par la saisie. Une entrée de nuit est rattachée au
+ * jour où elle commence, comme pour les totaux. Une instance est immuable et
+ * peut être partagée entre threads.
+ */
+public final class PayCalculator {
+
+    private final int[] nightPrefix;
+    private final int[] breakByWorked;
+    private final int dailyOvertimeThreshold;
+    private final int weeklyOvertimeThreshold;
+
+    PayCalculator(int[] nightPrefix, int[] breakByWorked, int dailyOvertimeThreshold, int weeklyOvertimeThreshold) {
+        this.nightPrefix = nightPrefix;
+        this.breakByWorked = breakByWorked;
+        this.dailyOvertimeThreshold = dailyOvertimeThreshold;
+        this.weeklyOvertimeThreshold = weeklyOvertimeThreshold;
+    }
+
+    /**
+     * @param startMinute heure de début en minutes
+     * @param endMinute heure de fin en minutes
+     * @return durée de pause déduite, en minutes
+     */
+    public int breakMinutes(int startMinute, int endMinute) {
+        return breakByWorked[TimesheetEntry.workedMinutes(startMinute, endMinute)];
+    }
+
+    /**
+     * @param startMinute heure de début en minutes
+     * @param endMinute heure de fin en minutes
+     * @return durée payée (travaillée moins la pause), en minutes
+     */
+    public int paidMinutes(int startMinute, int endMinute) {
+        int worked = TimesheetEntry.workedMinutes(startMinute, endMinute);
+        return worked - breakByWorked[worked];
+    }
+
+    /**
+     * Minutes payées comprises dans les plages de nuit. La pause est déduite
+     * en priorité des heures de jour.
+     * @param startMinute heure de début en minutes
+     * @param endMinute heure de fin en minutes
+     * @return minutes de nuit payées
+     */
+    public int nightMinutes(int startMinute, int endMinute) {
+        int worked = TimesheetEntry.workedMinutes(startMinute, endMinute);
+        int night = nightPrefix[startMinute + worked] - nightPrefix[startMinute];
+        return Math.min(night, worked - breakByWorked[worked]);
+    }
+
+    /**
+     * @param entry entrée
+     * @return minutes de nuit payées de l'entrée
+     */
+    public int nightMinutes(TimesheetEntry entry) {
+        return nightMinutes(entry.getStartMinute(), entry.getEndMinute());
+    }
+
+    /**
+     * @param entry entrée
+     * @return durée payée de l'entrée, en minutes
+     */
+    public int paidMinutes(TimesheetEntry entry) {
+        return paidMinutes(entry.getStartMinute(), entry.getEndMinute());
+    }
+
+    /**
+     * Évalue un ensemble d'entrées, dans n'importe quel ordre.
+     * @param entries entrées, par exemple celles d'un employé
+     * @return totaux de paie
+     */
+    public PaySummary summarize(Iterable<TimesheetEntry> entries) {
+        PaySummary summary = new PaySummary();
+        IntIntHashMap paidByDay = new IntIntHashMap();
+        for (TimesheetEntry entry : entries) {
+            int start = entry.getStartMinute();
+            int worked = TimesheetEntry.workedMinutes(start, entry.getEndMinute());
+            int paid = addShift(summary, start, worked);
+            paidByDay.addTo(entry.getEpochDay(), paid);
+        }
+
+        // Jours dans l'ordre : ceux d'une même semaine se suivent
+        int week = Integer.MIN_VALUE;
+        int weekMinutes = 0;
+        for (int day : paidByDay.sortedKeys()) {
+            int dayWeek = IsoWeekTable.yearWeek(day);
+            if (dayWeek != week) {
+                addWeek(summary, weekMinutes);
+                week = dayWeek;
+                weekMinutes = 0;
+            }
+            weekMinutes += addDay(summary, paidByDay.get(day, 0));
+        }
+        addWeek(summary, weekMinutes);
+        return summary;
+    }
+
+    /**
+     * Évalue des entrées en colonnes, déjà triées par date : aucune table intermédiaire n'est créée.
+     * @param columns entrées en colonnes
+     * @return totaux de paie
+     */
+    public PaySummary summarize(TimesheetColumns columns) {
+        PaySummary summary = new PaySummary();
+        int size = columns.size();
+        int week = Integer.MIN_VALUE;
+        int weekMinutes = 0;
+        int i = 0;
+        while (i < size) {
+            int day = columns.getEpochDay(i);
+            int dayMinutes = 0;
+            for (; i < size && columns.getEpochDay(i) == day; i++) {
+                int start = columns.getStartMinute(i);
+                dayMinutes += addShift(summary, start, TimesheetEntry.workedMinutes(start, columns.getEndMinute(i)));
+            }
+            int dayWeek = IsoWeekTable.yearWeek(day);
+            if (dayWeek != week) {
+                addWeek(summary, weekMinutes);
+                week = dayWeek;
+                weekMinutes = 0;
+            }
+            weekMinutes += addDay(summary, dayMinutes);
+        }
+        addWeek(summary, weekMinutes);
+        return summary;
+    }
+
+    /**
+     * Ajoute une entrée aux totaux.
+     * @return durée payée de l'entrée
+     */
+    private int addShift(PaySummary summary, int start, int worked) {
+        int breakMinutes = breakByWorked[worked];
+        int paid = worked - breakMinutes;
+        int night = nightPrefix[start + worked] - nightPrefix[start];
+        summary.entryCount++;
+        summary.workedMinutes += worked;
+        summary.breakMinutes += breakMinutes;
+        summary.paidMinutes += paid;
+        summary.nightMinutes += Math.min(night, paid);
+        return paid;
+    }
+
+    /**
+     * Ajoute les heures supplémentaires journalières d'un jour.
+     * @return minutes du jour restant à comparer au seuil hebdomadaire
+     */
+    private int addDay(PaySummary summary, int paid) {
+        int overtime = dailyOvertimeMinutes(paid);
+        summary.dailyOvertimeMinutes += overtime;
+        return paid - overtime;
+    }
+
+    private void addWeek(PaySummary summary, int minutes) {
+        summary.weeklyOvertimeMinutes += weeklyOvertimeMinutes(minutes);
+    }
+
+    /**
+     * @param paid durée payée d'un jour
+     * @return heures supplémentaires journalières de ce jour
+     */
+    int dailyOvertimeMinutes(int paid) {
+        return Math.max(0, paid - dailyOvertimeThreshold);
+    }
+
+    /**
+     * @param minutes durée payée d'une semaine, hors heures supplémentaires journalières
+     * @return heures supplémentaires hebdomadaires de cette semaine
+     */
+    int weeklyOvertimeMinutes(int minutes) {
+        return Math.max(0, minutes - weeklyOvertimeThreshold);
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.calculfeuilleheure.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Règles de paie appliquées aux entrées : plages d'heures de nuit, pauses
+ * déduites selon la durée travaillée et seuils d'heures supplémentaires
+ * journalier et hebdomadaire.
+ * <p>
+ * Un jeu de règles est immuable : chaque méthode {@code withXxx} renvoie une
+ * copie modifiée. {@link #compile()} le transforme une fois pour toutes en
+ * tables de correspondance ({@link PayCalculator}) ; l'évaluation d'une entrée
+ * se fait ensuite en temps constant.
+ * <p>
+ * Toutes les durées et heures sont exprimées en minutes (heures en minutes depuis minuit).
+ */
+public final class PayRules {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    // Seuil désactivé
+    static final int NO_THRESHOLD = Integer.MAX_VALUE;
+
+    private final List<int[]> nightWindows;
+    private final List<int[]> breaks;
+    private final int dailyOvertimeThreshold;
+    private final int weeklyOvertimeThreshold;
+
+    private PayRules(List<int[]> nightWindows, List<int[]> breaks, int dailyOvertimeThreshold, int weeklyOvertimeThreshold) {
+        this.nightWindows = nightWindows;
+        this.breaks = breaks;
+        this.dailyOvertimeThreshold = dailyOvertimeThreshold;
+        this.weeklyOvertimeThreshold = weeklyOvertimeThreshold;
+    }
+
+    /**
+     * @return jeu de règles vide : ni nuit, ni pause, ni heures supplémentaires
+     */
+    public static PayRules none() {
+        return new PayRules(List.of(), List.of(), NO_THRESHOLD, NO_THRESHOLD);
+    }
+
+    /**
+     * Règles par défaut : nuit de 21h à 6h, pause de 20 minutes dès 6h de travail,
+     * heures supplémentaires au-delà de 35h par semaine.
+     * @return règles par défaut
+     */
+    public static PayRules defaults() {
+        return none()
+                .withNightWindow(21 * 60, 6 * 60)
+                .withBreak(6 * 60, 20)
+                .withWeeklyOvertime(35 * 60);
+    }
+
+    /**
+     * Ajoute une plage d'heures de nuit. Si la fin est avant le début, la plage passe minuit
+     * (par exemple 21h → 6h).
+     * @param startMinute début de la plage, en minutes depuis minuit
+     * @param endMinute fin de la plage, en minutes depuis minuit
+     * @return nouvelles règles
+     */
+    public PayRules withNightWindow(int startMinute, int endMinute) {
+        checkMinuteOfDay(startMinute);
+        checkMinuteOfDay(endMinute);
+        List<int[]> windows = new ArrayList<>(nightWindows);
+        windows.add(new int[]{startMinute, endMinute});
+        return new PayRules(Collections.unmodifiableList(windows), breaks, dailyOvertimeThreshold, weeklyOvertimeThreshold);
+    }
+
+    /**
+     * Ajoute une pause déduite des entrées d'au moins une certaine durée.
+     * Lorsque plusieurs paliers s'appliquent, seul le plus élevé (en durée travaillée) est retenu.
+     * @param minWorkedMinutes durée travaillée à partir de laquelle la pause est déduite
+     * @param deductedMinutes durée de la pause
+     * @return nouvelles règles
+     */
+    public PayRules withBreak(int minWorkedMinutes, int deductedMinutes) {
+        if (minWorkedMinutes < 0 || minWorkedMinutes > MINUTES_PER_DAY || deductedMinutes < 0) {
+            throw new IllegalArgumentException("Pause invalide : " + deductedMinutes + " min après " + minWorkedMinutes + " min");
+        }
+        List<int[]> tiers = new ArrayList<>(breaks);
+        tiers.add(new int[]{minWorkedMinutes, deductedMinutes});
+        return new PayRules(nightWindows, Collections.unmodifiableList(tiers), dailyOvertimeThreshold, weeklyOvertimeThreshold);
+    }
+
+    /**
+     * @param thresholdMinutes durée payée par jour au-delà de laquelle les heures sont supplémentaires
+     * @return nouvelles règles
+     */
+    public PayRules withDailyOvertime(int thresholdMinutes) {
+        checkThreshold(thresholdMinutes);
+        return new PayRules(nightWindows, breaks, thresholdMinutes, weeklyOvertimeThreshold);
+    }
+
+    /**
+     * Les heures déjà supplémentaires au titre du seuil journalier ne sont pas comptées
+     * une seconde fois dans la semaine.
+     * @param thresholdMinutes durée payée par semaine au-delà de laquelle les heures sont supplémentaires
+     * @return nouvelles règles
+     */
+    public PayRules withWeeklyOvertime(int thresholdMinutes) {
+        checkThreshold(thresholdMinutes);
+        return new PayRules(nightWindows, breaks, dailyOvertimeThreshold, thresholdMinutes);
+    }
+
+    /**
+     * Compile les règles en tables de correspondance.
+     * @return calculateur prêt à évaluer des entrées
+     */
+    public PayCalculator compile() {
+        // Minutes de nuit cumulées sur deux jours : une entrée de nuit déborde sur le lendemain
+        int[] nightPrefix = new int[2 * MINUTES_PER_DAY + 1];
+        boolean[] night = new boolean[MINUTES_PER_DAY];
+        for (int[] window : nightWindows) {
+            for (int m = window[0]; m != window[1]; m = (m + 1) % MINUTES_PER_DAY) {
+                night[m] = true;
+            }
+        }
+        for (int m = 0; m < 2 * MINUTES_PER_DAY; m++) {
+            nightPrefix[m + 1] = nightPrefix[m] + (night[m % MINUTES_PER_DAY] ? 1 : 0);
+        }
+
+        // Pause déduite selon la durée travaillée, palier le plus élevé atteint
+        int[] breakByWorked = new int[MINUTES_PER_DAY + 1];
+        int[] thresholds = new int[MINUTES_PER_DAY + 1];
+        Arrays.fill(thresholds, -1);
+        for (int[] tier : breaks) {
+            for (int worked = tier[0]; worked <= MINUTES_PER_DAY; worked++) {
+                if (tier[0] > thresholds[worked]) {
+                    thresholds[worked] = tier[0];
+                    breakByWorked[worked] = Math.min(tier[1], worked);
+                }
+            }
+        }
+        return new PayCalculator(nightPrefix, breakByWorked, dailyOvertimeThreshold, weeklyOvertimeThreshold);
+    }
+
+    private static void checkMinuteOfDay(int minute) {
+        if (minute < 0 || minute >= MINUTES_PER_DAY) {
+            throw new IllegalArgumentException("Heure hors limites : " + minute);
+        }
+    }
+
+    private static void checkThreshold(int thresholdMinutes) {
+        if (thresholdMinutes < 0) {
+            throw new IllegalArgumentException("Seuil négatif : " + thresholdMinutes);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.calculfeuilleheure.service;
+
+/**
+ * Totaux de paie d'un ensemble d'entrées, en minutes, produits par
+ * {@link PayCalculator#summarize(Iterable)}.
+ * <p>
+ * Les heures supplémentaires sont comptées sur la durée payée : d'abord
+ * au-delà du seuil journalier, puis au-delà du seuil hebdomadaire pour les
+ * heures restantes. Les minutes de nuit sont comptées indépendamment et
+ * peuvent aussi être des heures supplémentaires.
+ */
+public final class PaySummary {
+
+    long entryCount;
+    long workedMinutes;
+    long breakMinutes;
+    long paidMinutes;
+    long nightMinutes;
+    long dailyOvertimeMinutes;
+    long weeklyOvertimeMinutes;
+
+    PaySummary() {
+    }
+
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    public long getWorkedMinutes() {
+        return workedMinutes;
+    }
+
+    public long getBreakMinutes() {
+        return breakMinutes;
+    }
+
+    /**
+     * @return durée travaillée moins les pauses
+     */
+    public long getPaidMinutes() {
+        return paidMinutes;
+    }
+
+    public long getNightMinutes() {
+        return nightMinutes;
+    }
+
+    public long getDailyOvertimeMinutes() {
+        return dailyOvertimeMinutes;
+    }
+
+    public long getWeeklyOvertimeMinutes() {
+        return weeklyOvertimeMinutes;
+    }
+
+    /**
+     * @return heures supplémentaires journalières et hebdomadaires
+     */
+    public long getOvertimeMinutes() {
+        return dailyOvertimeMinutes + weeklyOvertimeMinutes;
+    }
+
+    /**
+     * @return durée payée hors heures supplémentaires
+     */
+    public long getRegularMinutes() {
+        return paidMinutes - getOvertimeMinutes();
+    }
+}
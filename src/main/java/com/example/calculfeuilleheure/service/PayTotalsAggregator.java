@@ -0,0 +1,224 @@
+package com.example.calculfeuilleheure.service;
+
+import com.example.calculfeuilleheure.model.TimesheetEntry;
+import com.example.calculfeuilleheure.util.IntIntHashMap;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Agrégateur incrémental des totaux de paie, sur le modèle de {@link TotalsAggregator}.
+ * Écoute les changements d'une liste observable d'entrées et n'applique que
+ * les deltas : la durée payée de chaque jour et la part de chaque semaine
+ * soumise au seuil hebdomadaire sont conservées, de sorte qu'une modification
+ * ne recalcule que les heures supplémentaires du jour et de la semaine touchés.
+ * Le résultat est identique à {@link PayCalculator#summarize(Iterable)}.
+ */
+public class PayTotalsAggregator implements ListChangeListener<TimesheetEntry> {
+
+    private final PayCalculator calculator;
+
+    // Durée payée par jour et, par semaine, durée payée hors heures supplémentaires journalières
+    private final IntIntHashMap paidByDay = new IntIntHashMap();
+    private final IntIntHashMap regularByWeek = new IntIntHashMap();
+    private final IntIntHashMap entriesByDay = new IntIntHashMap();
+
+    private long entryCount;
+    private long workedMinutes;
+    private long breakMinutes;
+    private long paidMinutes;
+    private long nightMinutes;
+    private long dailyOvertimeMinutes;
+    private long weeklyOvertimeMinutes;
+
+    // Contribution enregistrée pour chaque entrée, afin de pouvoir la retirer
+    // même si l'entrée a été modifiée depuis son ajout
+    private final Map<TimesheetEntry, Contribution> contributions = new IdentityHashMap<>();
+
+    /**
+     * Contribution d'une entrée aux totaux au moment de son ajout.
+     */
+    private static final class Contribution {
+        private final int epochDay;
+        private final int yearWeek;
+        private final int workedMinutes;
+        private final int breakMinutes;
+        // Minutes de nuit payées, déjà plafonnées à la durée payée
+        private final int nightMinutes;
+        private int occurrences;
+
+        private Contribution(TimesheetEntry entry, PayCalculator calculator) {
+            this.epochDay = entry.getEpochDay();
+            this.yearWeek = entry.getYearWeek();
+            this.workedMinutes = entry.getWorkedMinutes();
+            this.breakMinutes = calculator.breakMinutes(entry.getStartMinute(), entry.getEndMinute());
+            this.nightMinutes = calculator.nightMinutes(entry.getStartMinute(), entry.getEndMinute());
+        }
+
+        private int paidMinutes() {
+            return workedMinutes - breakMinutes;
+        }
+    }
+
+    /**
+     * @param calculator règles de paie compilées
+     */
+    public PayTotalsAggregator(PayCalculator calculator) {
+        this.calculator = calculator;
+    }
+
+    /**
+     * Attache l'agrégateur à une liste observable : les totaux sont
+     * recalculés une fois, puis maintenus à chaque changement de la liste.
+     * @param entries liste observable des entrées
+     */
+    public void attach(ObservableList<TimesheetEntry> entries) {
+        rebuild(entries);
+        entries.addListener(this);
+    }
+
+    /**
+     * Recalcule entièrement les totaux à partir des entrées fournies.
+     * @param entries toutes les entrées
+     */
+    public void rebuild(Collection<TimesheetEntry> entries) {
+        paidByDay.clear();
+        regularByWeek.clear();
+        entriesByDay.clear();
+        contributions.clear();
+        entryCount = 0;
+        workedMinutes = 0;
+        breakMinutes = 0;
+        paidMinutes = 0;
+        nightMinutes = 0;
+        dailyOvertimeMinutes = 0;
+        weeklyOvertimeMinutes = 0;
+        for (TimesheetEntry entry : entries) {
+            add(entry);
+        }
+    }
+
+    @Override
+    public void onChanged(Change<? extends TimesheetEntry> change) {
+        while (change.next()) {
+            if (change.wasPermutated()) {
+                // Un simple réordonnancement ne modifie pas les totaux
+                continue;
+            }
+            if (change.wasUpdated()) {
+                for (int i = change.getFrom(); i < change.getTo(); i++) {
+                    refresh(change.getList().get(i));
+                }
+                continue;
+            }
+            for (TimesheetEntry removed : change.getRemoved()) {
+                remove(removed);
+            }
+            for (TimesheetEntry added : change.getAddedSubList()) {
+                add(added);
+            }
+        }
+    }
+
+    /**
+     * Ajoute la contribution d'une entrée aux totaux.
+     * @param entry entrée ajoutée
+     */
+    public void add(TimesheetEntry entry) {
+        Contribution contribution = contributions.get(entry);
+        if (contribution == null) {
+            contribution = new Contribution(entry, calculator);
+            contributions.put(entry, contribution);
+        }
+        contribution.occurrences++;
+        apply(contribution, 1);
+    }
+
+    /**
+     * Retire la contribution d'une entrée des totaux.
+     * @param entry entrée supprimée
+     */
+    public void remove(TimesheetEntry entry) {
+        Contribution contribution = contributions.get(entry);
+        if (contribution == null) {
+            return;
+        }
+        if (--contribution.occurrences == 0) {
+            contributions.remove(entry);
+        }
+        apply(contribution, -1);
+    }
+
+    /**
+     * Met à jour les totaux après modification d'une entrée déjà présente :
+     * l'ancienne contribution est retirée puis la nouvelle appliquée.
+     * @param entry entrée modifiée
+     */
+    public void refresh(TimesheetEntry entry) {
+        Contribution previous = contributions.remove(entry);
+        if (previous == null) {
+            return;
+        }
+        Contribution current = new Contribution(entry, calculator);
+        current.occurrences = previous.occurrences;
+        contributions.put(entry, current);
+        for (int i = 0; i < previous.occurrences; i++) {
+            apply(previous, -1);
+            apply(current, 1);
+        }
+    }
+
+    /**
+     * Ajoute (sign = 1) ou retire (sign = -1) une contribution, puis remplace les
+     * heures supplémentaires de son jour et de sa semaine par leur nouvelle valeur.
+     */
+    private void apply(Contribution contribution, int sign) {
+        int day = contribution.epochDay;
+        int week = contribution.yearWeek;
+        entryCount += sign;
+        workedMinutes += sign * contribution.workedMinutes;
+        breakMinutes += sign * contribution.breakMinutes;
+        paidMinutes += sign * contribution.paidMinutes();
+        nightMinutes += sign * contribution.nightMinutes;
+
+        int oldDayPaid = paidByDay.get(day, 0);
+        int newDayPaid = oldDayPaid + sign * contribution.paidMinutes();
+        int oldDayOvertime = calculator.dailyOvertimeMinutes(oldDayPaid);
+        int newDayOvertime = calculator.dailyOvertimeMinutes(newDayPaid);
+        if (entriesByDay.addTo(day, sign) == 0) {
+            entriesByDay.remove(day);
+            paidByDay.remove(day);
+        } else {
+            paidByDay.put(day, newDayPaid);
+        }
+        dailyOvertimeMinutes += newDayOvertime - oldDayOvertime;
+
+        int oldWeekRegular = regularByWeek.get(week, 0);
+        int newWeekRegular = oldWeekRegular + (newDayPaid - newDayOvertime) - (oldDayPaid - oldDayOvertime);
+        if (newWeekRegular == 0) {
+            regularByWeek.remove(week);
+        } else {
+            regularByWeek.put(week, newWeekRegular);
+        }
+        weeklyOvertimeMinutes += calculator.weeklyOvertimeMinutes(newWeekRegular)
+                - calculator.weeklyOvertimeMinutes(oldWeekRegular);
+    }
+
+    /**
+     * @return totaux de paie des entrées, dans un nouvel objet
+     */
+    public PaySummary getSummary() {
+        PaySummary summary = new PaySummary();
+        summary.entryCount = entryCount;
+        summary.workedMinutes = workedMinutes;
+        summary.breakMinutes = breakMinutes;
+        summary.paidMinutes = paidMinutes;
+        summary.nightMinutes = nightMinutes;
+        summary.dailyOvertimeMinutes = dailyOvertimeMinutes;
+        summary.weeklyOvertimeMinutes = weeklyOvertimeMinutes;
+        return summary;
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.calculfeuilleheure.service;
+
+import com.example.calculfeuilleheure.model.TimesheetEntry;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Index des entrées par intervalle de temps absolu, pour détecter les
+ * chevauchements et répondre aux requêtes « qu'a-t-on travaillé entre T1 et T2 ».
+ * <p>
+ * Une entrée occupe l'intervalle {@code [début, début + durée)} exprimé en
+ * minutes depuis le 01/01/1970 0h00 ; une entrée de nuit déborde donc sur le
+ * lendemain. Les intervalles sont triés par début. Une entrée durant moins
+ * d'un jour, seules celles qui commencent dans la journée précédant une
+ * requête peuvent la chevaucher : une recherche coûte O(log n) plus le nombre
+ * d'entrées de cette fenêtre, même sur plusieurs années de données.
+ * <p>
+ * Comme {@link TotalsAggregator}, l'index suit les changements d'une liste
+ * observable et retient l'intervalle enregistré pour chaque entrée, afin de
+ * pouvoir la retirer même si elle a été modifiée depuis.
+ */
+public class ShiftIndex implements ListChangeListener<TimesheetEntry> {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    // Intervalles par minute de début ; plusieurs entrées peuvent commencer à la même minute
+    private final NavigableMap<Long, List<Shift>> shiftsByStart = new TreeMap<>();
+
+    // Intervalle enregistré pour chaque entrée
+    private final Map<TimesheetEntry, Shift> shifts = new IdentityHashMap<>();
+
+    private int size;
+
+    /**
+     * Intervalle d'une entrée au moment de son ajout.
+     */
+    private static final class Shift {
+        private final TimesheetEntry entry;
+        private final long start;
+        private final long end;
+        private int occurrences;
+
+        private Shift(TimesheetEntry entry) {
+            this.entry = entry;
+            this.start = absoluteMinute(entry.getEpochDay(), entry.getStartMinute());
+            this.end = start + entry.getWorkedMinutes();
+        }
+
+        private boolean overlaps(long from, long to) {
+            return start < to && end > from && start < end;
+        }
+    }
+
+    /**
+     * Attache l'index à une liste observable : il est construit une fois,
+     * puis maintenu à chaque changement de la liste.
+     * @param entries liste observable des entrées
+     */
+    public void attach(ObservableList<TimesheetEntry> entries) {
+        rebuild(entries);
+        entries.addListener(this);
+    }
+
+    /**
+     * Reconstruit entièrement l'index à partir des entrées fournies.
+     * @param entries toutes les entrées
+     */
+    public void rebuild(Collection<TimesheetEntry> entries) {
+        shiftsByStart.clear();
+        shifts.clear();
+        size = 0;
+        for (TimesheetEntry entry : entries) {
+            add(entry);
+        }
+    }
+
+    @Override
+    public void onChanged(Change<? extends TimesheetEntry> change) {
+        while (change.next()) {
+            if (change.wasPermutated()) {
+                continue;
+            }
+            if (change.wasUpdated()) {
+                for (int i = change.getFrom(); i < change.getTo(); i++) {
+                    refresh(change.getList().get(i));
+                }
+                continue;
+            }
+            for (TimesheetEntry removed : change.getRemoved()) {
+                remove(removed);
+            }
+            for (TimesheetEntry added : change.getAddedSubList()) {
+                add(added);
+            }
+        }
+    }
+
+    /**
+     * Ajoute une entrée à l'index.
+     * @param entry entrée ajoutée
+     */
+    public void add(TimesheetEntry entry) {
+        Shift shift = shifts.get(entry);
+        if (shift == null) {
+            shift = new Shift(entry);
+            shifts.put(entry, shift);
+        }
+        shift.occurrences++;
+        shiftsByStart.computeIfAbsent(shift.start, s -> new ArrayList<>(1)).add(shift);
+        size++;
+    }
+
+    /**
+     * Retire une entrée de l'index.
+     * @param entry entrée supprimée
+     */
+    public void remove(TimesheetEntry entry) {
+        Shift shift = shifts.get(entry);
+        if (shift == null) {
+            return;
+        }
+        if (--shift.occurrences == 0) {
+            shifts.remove(entry);
+        }
+        List<Shift> bucket = shiftsByStart.get(shift.start);
+        bucket.remove(shift);
+        if (bucket.isEmpty()) {
+            shiftsByStart.remove(shift.start);
+        }
+        size--;
+    }
+
+    /**
+     * Met à jour l'intervalle d'une entrée déjà présente, après modification.
+     * @param entry entrée modifiée
+     */
+    public void refresh(TimesheetEntry entry) {
+        Shift previous = shifts.get(entry);
+        if (previous == null) {
+            return;
+        }
+        int occurrences = previous.occurrences;
+        for (int i = 0; i < occurrences; i++) {
+            remove(entry);
+        }
+        for (int i = 0; i < occurrences; i++) {
+            add(entry);
+        }
+    }
+
+    /**
+     * @return nombre d'entrées indexées
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Recherche les entrées qui chevaucheraient une nouvelle entrée.
+     * @param date date de la nouvelle entrée
+     * @param startMinute heure de début en minutes
+     * @param endMinute heure de fin en minutes (avant le début pour une entrée de nuit)
+     * @return entrées chevauchantes, triées par début ; vide si aucune
+     */
+    public List<TimesheetEntry> overlapping(LocalDate date, int startMinute, int endMinute) {
+        long start = absoluteMinute((int) date.toEpochDay(), startMinute);
+        return between(start, start + TimesheetEntry.workedMinutes(startMinute, endMinute));
+    }
+
+    /**
+     * @param entry entrée, indexée ou non
+     * @return autres entrées qui la chevauchent, triées par début
+     */
+    public List<TimesheetEntry> overlapping(TimesheetEntry entry) {
+        List<TimesheetEntry> result = overlapping(entry.getDate(), entry.getStartMinute(), entry.getEndMinute());
+        result.removeIf(other -> other == entry);
+        return result;
+    }
+
+    /**
+     * Entrées travaillées, au moins en partie, dans un intervalle.
+     * @param from début de l'intervalle (inclus)
+     * @param to fin de l'intervalle (exclue)
+     * @return entrées triées par début
+     */
+    public List<TimesheetEntry> between(LocalDateTime from, LocalDateTime to) {
+        return between(absoluteMinute(from), absoluteMinute(to));
+    }
+
+    /**
+     * Minutes travaillées dans un intervalle, les entrées à cheval sur ses bornes étant coupées.
+     * @param from début de l'intervalle (inclus)
+     * @param to fin de l'intervalle (exclue)
+     * @return minutes travaillées
+     */
+    public long workedMinutesBetween(LocalDateTime from, LocalDateTime to) {
+        long start = absoluteMinute(from);
+        long end = absoluteMinute(to);
+        long total = 0;
+        for (List<Shift> bucket : candidates(start, end)) {
+            for (Shift shift : bucket) {
+                if (shift.overlaps(start, end)) {
+                    total += Math.min(shift.end, end) - Math.max(shift.start, start);
+                }
+            }
+        }
+        return total;
+    }
+
+    private List<TimesheetEntry> between(long from, long to) {
+        List<TimesheetEntry> result = new ArrayList<>();
+        for (List<Shift> bucket : candidates(from, to)) {
+            for (Shift shift : bucket) {
+                if (shift.overlaps(from, to)) {
+                    result.add(shift.entry);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Seules les entrées commençant moins d'un jour avant {@code from} peuvent atteindre l'intervalle.
+     */
+    private Collection<List<Shift>> candidates(long from, long to) {
+        if (to <= from) {
+            return List.of();
+        }
+        return shiftsByStart.subMap(from - MINUTES_PER_DAY, false, to, false).values();
+    }
+
+    private static long absoluteMinute(int epochDay, int minuteOfDay) {
+        return (long) epochDay * MINUTES_PER_DAY + minuteOfDay;
+    }
+
+    private static long absoluteMinute(LocalDateTime dateTime) {
+        return absoluteMinute((int) dateTime.toLocalDate().toEpochDay(), dateTime.getHour() * 60 + dateTime.getMinute());
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.calculfeuilleheure.service;
+
+import com.example.calculfeuilleheure.model.TimesheetEntry;
+import javafx.collections.ObservableList;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Modifications groupées de la liste des entrées.
+ * Chaque opération est appliquée en une seule modification de la liste
+ * ({@code addAll}, {@code removeAll} ou {@code setAll}) : les écouteurs
+ * (totaux, enregistrement, tableau) ne sont notifiés qu'une fois, quel que
+ * soit le nombre d'entrées concernées.
+ * <p>
+ * Les entrées existantes ne sont jamais modifiées : une entrée déplacée est
+ * remplacée par une nouvelle entrée.
+ */
+public class TimesheetEditor {
+
+    private final ObservableList<TimesheetEntry> entries;
+
+    /**
+     * @param entries liste observable des entrées à modifier
+     */
+    public TimesheetEditor(ObservableList<TimesheetEntry> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Ajoute plusieurs entrées en fin de liste.
+     * @param added entrées à ajouter
+     */
+    public void addAll(Collection<TimesheetEntry> added) {
+        if (!added.isEmpty()) {
+            entries.addAll(added);
+        }
+    }
+
+    /**
+     * Supprime une sélection d'entrées, comparées par identité.
+     * @param selection entrées à supprimer
+     * @return nombre d'entrées supprimées
+     */
+    public int removeAll(Collection<? extends TimesheetEntry> selection) {
+        if (selection.isEmpty()) {
+            return 0;
+        }
+        // Recherche en O(1) par entrée, sans dépendre de equals()
+        Set<TimesheetEntry> removed = Collections.newSetFromMap(new IdentityHashMap<>(selection.size() * 2));
+        removed.addAll(selection);
+        int before = entries.size();
+        entries.removeAll(removed);
+        return before - entries.size();
+    }
+
+    /**
+     * Décale de plusieurs jours toutes les entrées comprises entre deux dates incluses.
+     * L'ordre de la liste est conservé.
+     * @param from première date concernée
+     * @param to dernière date concernée
+     * @param days nombre de jours de décalage (négatif pour reculer)
+     * @return nombre d'entrées décalées
+     */
+    public int shiftDates(LocalDate from, LocalDate to, long days) {
+        if (days == 0) {
+            return 0;
+        }
+        List<TimesheetEntry> shifted = new ArrayList<>(entries.size());
+        int count = 0;
+        for (TimesheetEntry entry : entries) {
+            LocalDate date = entry.getDate();
+            if (!date.isBefore(from) && !date.isAfter(to)) {
+                shifted.add(TimesheetEntry.ofMinutes(date.plusDays(days), entry.getStartMinute(), entry.getEndMinute()));
+                count++;
+            } else {
+                shifted.add(entry);
+            }
+        }
+        if (count > 0) {
+            entries.setAll(shifted);
+        }
+        return count;
+    }
+
+    /**
+     * Copie les entrées d'une semaine (lundi à dimanche) vers une autre semaine,
+     * en conservant le jour de la semaine et les horaires.
+     * @param sourceDay un jour quelconque de la semaine à copier
+     * @param targetDay un jour quelconque de la semaine de destination
+     * @return nombre d'entrées copiées
+     */
+    public int duplicateWeek(LocalDate sourceDay, LocalDate targetDay) {
+        LocalDate monday = sourceDay.with(DayOfWeek.MONDAY);
+        LocalDate sunday = monday.plusDays(6);
+        long offset = ChronoUnit.DAYS.between(monday, targetDay.with(DayOfWeek.MONDAY));
+        if (offset == 0) {
+            return 0;
+        }
+        List<TimesheetEntry> copies = new ArrayList<>();
+        for (TimesheetEntry entry : entries) {
+            LocalDate date = entry.getDate();
+            if (!date.isBefore(monday) && !date.isAfter(sunday)) {
+                copies.add(TimesheetEntry.ofMinutes(date.plusDays(offset), entry.getStartMinute(), entry.getEndMinute()));
+            }
+        }
+        addAll(copies);
+        return copies.size();
+    }
+}
@@ -0,0 +1,277 @@
+package com.example.calculfeuilleheure.service;
+
+import com.example.calculfeuilleheure.metrics.Metrics;
+import com.example.calculfeuilleheure.metrics.TimesheetEvents;
+import com.example.calculfeuilleheure.model.TimesheetEntry;
+import com.example.calculfeuilleheure.util.HoursFormat;
+import com.example.calculfeuilleheure.util.IntIntHashMap;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Agrégateur incrémental des totaux journaliers et hebdomadaires.
+ * Écoute les changements d'une liste observable d'entrées et applique
+ * uniquement les deltas (ajout, suppression, mise à jour) aux totaux,
+ * au lieu de reparcourir toutes les entrées à chaque modification.
+ * Les jours sont indexés par epoch-day et les semaines par clé année-semaine
+ * compactée ({@link TimesheetEntry#getYearWeek()}), dans des tables primitives.
+ */
+public class TotalsAggregator implements ListChangeListener<TimesheetEntry> {
+
+    // Totaux en minutes : les deltas successifs restent exacts
+    private final IntIntHashMap dailyTotals = new IntIntHashMap();
+    private final IntIntHashMap weeklyTotals = new IntIntHashMap();
+    private final IntIntHashMap dateCounts = new IntIntHashMap();
+    private final IntIntHashMap weekMaxDays = new IntIntHashMap();
+
+    // Contribution enregistrée pour chaque entrée, afin de pouvoir la retirer
+    // même si l'entrée a été modifiée depuis son ajout
+    private final Map<TimesheetEntry, Contribution> contributions = new IdentityHashMap<>();
+
+    /**
+     * Contribution d'une entrée aux totaux au moment de son ajout.
+     */
+    private static final class Contribution {
+        private final int epochDay;
+        private final int yearWeek;
+        private final int workedMinutes;
+        private int occurrences;
+
+        private Contribution(TimesheetEntry entry) {
+            this.epochDay = entry.getEpochDay();
+            this.yearWeek = entry.getYearWeek();
+            this.workedMinutes = entry.getWorkedMinutes();
+        }
+    }
+
+    /**
+     * Attache l'agrégateur à une liste observable : les totaux sont
+     * recalculés une fois, puis maintenus à chaque changement de la liste.
+     * La liste doit notifier les mises à jour (extracteur) pour que les
+     * modifications d'entrées existantes soient prises en compte.
+     * @param entries liste observable des entrées
+     */
+    public void attach(ObservableList<TimesheetEntry> entries) {
+        rebuild(entries);
+        entries.addListener(this);
+    }
+
+    /**
+     * Recalcule entièrement les totaux à partir des entrées fournies.
+     * @param entries toutes les entrées
+     */
+    public void rebuild(Collection<TimesheetEntry> entries) {
+        dailyTotals.clear();
+        weeklyTotals.clear();
+        dateCounts.clear();
+        weekMaxDays.clear();
+        contributions.clear();
+        for (TimesheetEntry entry : entries) {
+            add(entry);
+        }
+    }
+
+    @Override
+    public void onChanged(Change<? extends TimesheetEntry> change) {
+        long start = System.nanoTime();
+        TimesheetEvents.TotalsUpdate event = new TimesheetEvents.TotalsUpdate();
+        event.begin();
+        int processed = 0;
+        while (change.next()) {
+            if (change.wasPermutated()) {
+                // Un simple réordonnancement ne modifie pas les totaux
+                continue;
+            }
+            if (change.wasUpdated()) {
+                for (int i = change.getFrom(); i < change.getTo(); i++) {
+                    refresh(change.getList().get(i));
+                }
+                processed += change.getTo() - change.getFrom();
+                continue;
+            }
+            for (TimesheetEntry removed : change.getRemoved()) {
+                remove(removed);
+            }
+            for (TimesheetEntry added : change.getAddedSubList()) {
+                add(added);
+            }
+            processed += change.getRemovedSize() + change.getAddedSize();
+        }
+        event.entries = processed;
+        event.commit();
+        Metrics.TOTALS_ENTRIES.add(processed);
+        Metrics.TOTALS_UPDATE.recordSince(start);
+    }
+
+    /**
+     * Ajoute la contribution d'une entrée aux totaux.
+     * @param entry entrée ajoutée
+     */
+    public void add(TimesheetEntry entry) {
+        Contribution contribution = contributions.get(entry);
+        if (contribution == null) {
+            contribution = new Contribution(entry);
+            contributions.put(entry, contribution);
+        }
+        contribution.occurrences++;
+        apply(contribution);
+    }
+
+    /**
+     * Retire la contribution d'une entrée des totaux.
+     * @param entry entrée supprimée
+     */
+    public void remove(TimesheetEntry entry) {
+        Contribution contribution = contributions.get(entry);
+        if (contribution == null) {
+            return;
+        }
+        if (--contribution.occurrences == 0) {
+            contributions.remove(entry);
+        }
+        revert(contribution);
+    }
+
+    /**
+     * Met à jour les totaux après modification d'une entrée déjà présente :
+     * l'ancienne contribution est retirée puis la nouvelle appliquée.
+     * @param entry entrée modifiée
+     */
+    public void refresh(TimesheetEntry entry) {
+        Contribution previous = contributions.remove(entry);
+        if (previous == null) {
+            return;
+        }
+        Contribution current = new Contribution(entry);
+        current.occurrences = previous.occurrences;
+        contributions.put(entry, current);
+        for (int i = 0; i < previous.occurrences; i++) {
+            revert(previous);
+            apply(current);
+        }
+    }
+
+    private void apply(Contribution contribution) {
+        int day = contribution.epochDay;
+        int week = contribution.yearWeek;
+        dateCounts.addTo(day, 1);
+        dailyTotals.addTo(day, contribution.workedMinutes);
+        weeklyTotals.addTo(week, contribution.workedMinutes);
+
+        int currentMax = weekMaxDays.get(week, Integer.MIN_VALUE);
+        if (day > currentMax) {
+            weekMaxDays.put(week, day);
+        }
+    }
+
+    /**
+     * Retire une contribution des totaux. La date max de la semaine n'est
+     * recalculée que si la contribution retirée était la dernière à cette date max.
+     */
+    private void revert(Contribution contribution) {
+        int day = contribution.epochDay;
+        int week = contribution.yearWeek;
+
+        int count = dateCounts.addTo(day, -1);
+        if (count == 0) {
+            dateCounts.remove(day);
+            dailyTotals.remove(day);
+        } else {
+            dailyTotals.addTo(day, -contribution.workedMinutes);
+        }
+
+        if (count == 0 && day == weekMaxDays.get(week, Integer.MIN_VALUE)) {
+            // Les jours d'une semaine ISO sont contigus : on remonte jusqu'au lundi
+            int monday = day - dayOfWeekIndex(day);
+            int newMax = Integer.MIN_VALUE;
+            for (int d = day - 1; d >= monday; d--) {
+                if (dateCounts.containsKey(d)) {
+                    newMax = d;
+                    break;
+                }
+            }
+            if (newMax == Integer.MIN_VALUE) {
+                // Plus aucune entrée dans la semaine
+                weekMaxDays.remove(week);
+                weeklyTotals.remove(week);
+                return;
+            }
+            weekMaxDays.put(week, newMax);
+        }
+        weeklyTotals.addTo(week, -contribution.workedMinutes);
+    }
+
+    /**
+     * Position du jour dans la semaine ISO (0 pour lundi, 6 pour dimanche).
+     * Le 01/01/1970 (epoch-day 0) était un jeudi.
+     */
+    private static int dayOfWeekIndex(int epochDay) {
+        return Math.floorMod(epochDay + 3, 7);
+    }
+
+    /**
+     * @param epochDay jour epoch
+     * @return nombre d'entrées pour ce jour
+     */
+    public int getDateCount(int epochDay) {
+        return dateCounts.get(epochDay, 0);
+    }
+
+    /**
+     * @param epochDay jour epoch
+     * @return total des minutes travaillées pour ce jour
+     */
+    public int getDailyTotal(int epochDay) {
+        return dailyTotals.get(epochDay, 0);
+    }
+
+    /**
+     * @param yearWeek clé de semaine compactée (voir {@link TimesheetEntry#getYearWeek()})
+     * @return total des minutes travaillées pour cette semaine
+     */
+    public int getWeeklyTotal(int yearWeek) {
+        return weeklyTotals.get(yearWeek, 0);
+    }
+
+    /**
+     * @param yearWeek clé de semaine compactée (voir {@link TimesheetEntry#getYearWeek()})
+     * @return date la plus récente de la semaine, ou null si la semaine est vide
+     */
+    public LocalDate getWeekMaxDate(int yearWeek) {
+        int day = weekMaxDays.get(yearWeek, Integer.MIN_VALUE);
+        return day == Integer.MIN_VALUE ? null : LocalDate.ofEpochDay(day);
+    }
+
+    /**
+     * Indique si l'entrée fait partie d'un groupe de plusieurs entrées à la même date.
+     * @param entry entrée
+     * @return true si plusieurs entrées partagent cette date
+     */
+    public boolean isPartOfGroup(TimesheetEntry entry) {
+        return getDateCount(entry.getEpochDay()) > 1;
+    }
+
+    /**
+     * Indique si l'entrée est à la date la plus récente de sa semaine.
+     * @param entry entrée
+     * @return true si l'entrée est la dernière de sa semaine
+     */
+    public boolean isLastInWeek(TimesheetEntry entry) {
+        return entry.getEpochDay() == weekMaxDays.get(entry.getYearWeek(), Integer.MIN_VALUE);
+    }
+
+    /**
+     * Construit le libellé du total hebdomadaire, par exemple "Semaine 12: 38h30".
+     * @param entry entrée de la semaine
+     * @return libellé du total hebdomadaire
+     */
+    public String formatWeeklyTotal(TimesheetEntry entry) {
+        StringBuilder sb = new StringBuilder(20).append("Semaine ").append(entry.getWeekNumber()).append(": ");
+        return HoursFormat.appendTo(sb, getWeeklyTotal(entry.getYearWeek())).toString();
+    }
+}
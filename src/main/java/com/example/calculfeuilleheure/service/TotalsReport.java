@@ -0,0 +1,167 @@
+package com.example.calculfeuilleheure.service;
+
+import com.example.calculfeuilleheure.model.TimesheetEntry;
+import com.example.calculfeuilleheure.util.IntIntHashMap;
+import com.example.calculfeuilleheure.util.IsoWeekTable;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Totaux en minutes d'un ensemble d'entrées, par jour, semaine ISO, mois et année.
+ * Produit par {@link ParallelTotalsEngine} ; les totaux étant des sommes
+ * entières, le résultat ne dépend ni de l'ordre des entrées ni du découpage
+ * du calcul.
+ * <p>
+ * Clés : epoch-day pour les jours, {@link TimesheetEntry#getYearWeek()} pour
+ * les semaines, {@code année * 100 + mois} pour les mois et l'année civile
+ * pour les années.
+ */
+public final class TotalsReport {
+
+    private final IntIntHashMap daily;
+    private final IntIntHashMap weekly = new IntIntHashMap();
+    private final IntIntHashMap monthly = new IntIntHashMap();
+    private final IntIntHashMap yearly = new IntIntHashMap();
+    private long entryCount;
+    private long totalMinutes;
+
+    TotalsReport() {
+        this(16);
+    }
+
+    TotalsReport(int expectedDays) {
+        this.daily = new IntIntHashMap(expectedDays);
+    }
+
+    /**
+     * Combine plusieurs rapports, par exemple ceux de plusieurs employés.
+     * @param reports rapports à combiner
+     * @return nouveau rapport contenant la somme des totaux
+     */
+    public static TotalsReport combine(Collection<TotalsReport> reports) {
+        TotalsReport combined = new TotalsReport();
+        for (TotalsReport report : reports) {
+            combined.merge(report);
+        }
+        return combined;
+    }
+
+    /**
+     * Ajoute une entrée aux totaux.
+     */
+    void add(TimesheetEntry entry) {
+        int minutes = entry.getWorkedMinutes();
+        LocalDate date = entry.getDate();
+        daily.addTo((int) date.toEpochDay(), minutes);
+        weekly.addTo(entry.getYearWeek(), minutes);
+        monthly.addTo(monthKey(date.getYear(), date.getMonthValue()), minutes);
+        yearly.addTo(date.getYear(), minutes);
+        entryCount++;
+        totalMinutes += minutes;
+    }
+
+    /**
+     * Ajoute le total d'un jour, pour plusieurs entrées à la fois.
+     */
+    void addDay(int epochDay, int entries, int minutes) {
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        daily.addTo(epochDay, minutes);
+        weekly.addTo(IsoWeekTable.yearWeek(epochDay), minutes);
+        monthly.addTo(monthKey(date.getYear(), date.getMonthValue()), minutes);
+        yearly.addTo(date.getYear(), minutes);
+        entryCount += entries;
+        totalMinutes += minutes;
+    }
+
+    /**
+     * Ajoute les totaux d'un autre rapport à celui-ci.
+     */
+    void merge(TotalsReport other) {
+        daily.addAll(other.daily);
+        weekly.addAll(other.weekly);
+        monthly.addAll(other.monthly);
+        yearly.addAll(other.yearly);
+        entryCount += other.entryCount;
+        totalMinutes += other.totalMinutes;
+    }
+
+    private static int monthKey(int year, int month) {
+        return year * 100 + month;
+    }
+
+    /**
+     * @param epochDay jour epoch
+     * @return total des minutes du jour
+     */
+    public int getDailyTotal(int epochDay) {
+        return daily.get(epochDay, 0);
+    }
+
+    /**
+     * @param yearWeek clé de semaine compactée (voir {@link TimesheetEntry#getYearWeek()})
+     * @return total des minutes de la semaine
+     */
+    public int getWeeklyTotal(int yearWeek) {
+        return weekly.get(yearWeek, 0);
+    }
+
+    /**
+     * @param year année
+     * @param month mois (1 à 12)
+     * @return total des minutes du mois
+     */
+    public int getMonthlyTotal(int year, int month) {
+        return monthly.get(monthKey(year, month), 0);
+    }
+
+    /**
+     * @param year année civile
+     * @return total des minutes de l'année
+     */
+    public int getYearlyTotal(int year) {
+        return yearly.get(year, 0);
+    }
+
+    /**
+     * @return jours (epoch-day) ayant au moins une entrée, triés
+     */
+    public int[] getDays() {
+        return daily.sortedKeys();
+    }
+
+    /**
+     * @return semaines (clés compactées) ayant au moins une entrée, triées
+     */
+    public int[] getWeeks() {
+        return weekly.sortedKeys();
+    }
+
+    /**
+     * @return mois ({@code année * 100 + mois}) ayant au moins une entrée, triés
+     */
+    public int[] getMonths() {
+        return monthly.sortedKeys();
+    }
+
+    /**
+     * @return années ayant au moins une entrée, triées
+     */
+    public int[] getYears() {
+        return yearly.sortedKeys();
+    }
+
+    /**
+     * @return nombre d'entrées agrégées
+     */
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * @return total des minutes de toutes les entrées
+     */
+    public long getTotalMinutes() {
+        return totalMinutes;
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.calculfeuilleheure.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Formatage des heures au format "xxhyy" sans passer par {@link String#format}.
+ * Les 1440 minutes d'une journée sont pré-calculées une fois pour toutes ;
+ * les totaux (plus de 24 heures) sont formatés caractère par caractère.
+ */
+public final class HoursFormat {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    // Chaînes pré-calculées pour chaque minute de la journée ("0h00" à "23h59")
+    private static final String[] MINUTE_OF_DAY = new String[MINUTES_PER_DAY];
+
+    static {
+        StringBuilder sb = new StringBuilder(5);
+        for (int m = 0; m < MINUTES_PER_DAY; m++) {
+            sb.setLength(0);
+            appendSlow(sb, m);
+            MINUTE_OF_DAY[m] = sb.toString();
+        }
+    }
+
+    private HoursFormat() {
+    }
+
+    /**
+     * Formate un nombre de minutes au format "xxhyy".
+     * Par exemple, 510 devient "8h30" et 2430 devient "40h30".
+     * @param minutes minutes à formater
+     * @return chaîne au format "xxhyy"
+     */
+    public static String format(int minutes) {
+        if (minutes >= 0 && minutes < MINUTES_PER_DAY) {
+            return MINUTE_OF_DAY[minutes];
+        }
+        return formatTotal(minutes);
+    }
+
+    /**
+     * Formate un total de minutes au format "xxhyy", par exemple la somme des
+     * entrées de plusieurs années ou de plusieurs employés.
+     * @param minutes minutes à formater
+     * @return chaîne au format "xxhyy"
+     */
+    public static String format(long minutes) {
+        if (minutes >= 0 && minutes < MINUTES_PER_DAY) {
+            return MINUTE_OF_DAY[(int) minutes];
+        }
+        return formatTotal(minutes);
+    }
+
+    /**
+     * Ajoute un nombre de minutes au format "xxhyy" à un {@link StringBuilder}, sans allocation.
+     * @param sb destination
+     * @param minutes minutes à formater
+     * @return le StringBuilder fourni
+     */
+    public static StringBuilder appendTo(StringBuilder sb, int minutes) {
+        if (minutes >= 0 && minutes < MINUTES_PER_DAY) {
+            return sb.append(MINUTE_OF_DAY[minutes]);
+        }
+        appendSlow(sb, minutes);
+        return sb;
+    }
+
+    /**
+     * Ajoute un nombre de minutes au format "xxhyy" à un {@link Appendable}.
+     * @param out destination
+     * @param minutes minutes à formater
+     * @throws IOException en cas d'erreur d'écriture
+     */
+    public static void appendTo(Appendable out, int minutes) throws IOException {
+        if (out instanceof StringBuilder) {
+            appendTo((StringBuilder) out, minutes);
+        } else if (minutes >= 0 && minutes < MINUTES_PER_DAY) {
+            out.append(MINUTE_OF_DAY[minutes]);
+        } else {
+            appendSlow(out, minutes);
+        }
+    }
+
+    /**
+     * Formate un total de minutes pouvant dépasser 24 heures.
+     */
+    private static String formatTotal(long minutes) {
+        // 18 chiffres pour les heures au plus, signe, 'h' et deux chiffres de minutes
+        char[] buffer = new char[22];
+        int pos = buffer.length;
+        // Minutes et heures négatives pour couvrir Long.MIN_VALUE
+        long negative = minutes < 0 ? minutes : -minutes;
+        long h = -(negative / 60);
+        int m = (int) -(negative % 60);
+        buffer[--pos] = (char) ('0' + m % 10);
+        buffer[--pos] = (char) ('0' + m / 10);
+        buffer[--pos] = 'h';
+        do {
+            buffer[--pos] = (char) ('0' + h % 10);
+            h /= 10;
+        } while (h > 0);
+        if (minutes < 0) {
+            buffer[--pos] = '-';
+        }
+        return new String(buffer, pos, buffer.length - pos);
+    }
+
+    private static void appendSlow(StringBuilder sb, int minutes) {
+        try {
+            appendSlow((Appendable) sb, minutes);
+        } catch (IOException e) {
+            // Un StringBuilder ne lève jamais d'IOException
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void appendSlow(Appendable out, int minutes) throws IOException {
+        long abs = Math.abs((long) minutes);
+        if (minutes < 0) {
+            out.append('-');
+        }
+        long h = abs / 60;
+        int m = (int) (abs % 60);
+        long divisor = 1;
+        while (divisor * 10 <= h) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            out.append((char) ('0' + (h / divisor) % 10));
+        }
+        out.append('h').append((char) ('0' + m / 10)).append((char) ('0' + m % 10));
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.calculfeuilleheure.util;
+
+/**
+ * Analyse des heures saisies au format "xxhyy" (ex : "8h30", "08h30") ou "xx:yy"
+ * (ex : "8:30") en un seul passage sur les caractères, sans expression régulière
+ * ni allocation. Utilisable depuis l'interface comme pour l'import de gros fichiers.
+ * <p>
+ * Comme l'ancienne validation, le format accepte jusqu'à 99h59 : les heures
+ * d'une entrée doivent en plus être vérifiées avec {@link #isTimeOfDay(int)}.
+ */
+public final class HoursParser {
+
+    /**
+     * Valeur retournée lorsque le texte n'est pas une heure valide.
+     */
+    public static final int INVALID = -1;
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private HoursParser() {
+    }
+
+    /**
+     * @param minutes minutes depuis minuit, par exemple retournées par {@link #parse(CharSequence)}
+     * @return true si l'heure est comprise entre 0h00 et 23h59
+     */
+    public static boolean isTimeOfDay(int minutes) {
+        return minutes >= 0 && minutes < MINUTES_PER_DAY;
+    }
+
+    /**
+     * Convertit une heure "xxhyy" ou "xx:yy" en minutes depuis minuit.
+     * @param text texte à analyser
+     * @return nombre de minutes, ou {@link #INVALID} si le format est invalide
+     */
+    public static int parse(CharSequence text) {
+        return text == null ? INVALID : parse(text, 0, text.length());
+    }
+
+    /**
+     * Convertit la portion [start, end) d'un texte en minutes depuis minuit.
+     * @param text texte à analyser
+     * @param start indice du premier caractère
+     * @param end indice suivant le dernier caractère
+     * @return nombre de minutes, ou {@link #INVALID} si le format est invalide
+     */
+    public static int parse(CharSequence text, int start, int end) {
+        // 1 ou 2 chiffres, séparateur, exactement 2 chiffres
+        int length = end - start;
+        if (length < 4 || length > 5) {
+            return INVALID;
+        }
+        int separator = end - 3;
+        char sep = text.charAt(separator);
+        if (sep != 'h' && sep != ':') {
+            return INVALID;
+        }
+        int hours = 0;
+        for (int i = start; i < separator; i++) {
+            int d = text.charAt(i) - '0';
+            if (d < 0 || d > 9) {
+                return INVALID;
+            }
+            hours = hours * 10 + d;
+        }
+        int tens = text.charAt(end - 2) - '0';
+        int units = text.charAt(end - 1) - '0';
+        if (tens < 0 || tens > 5 || units < 0 || units > 9) {
+            return INVALID;
+        }
+        return hours * 60 + tens * 10 + units;
+    }
+
+    /**
+     * Convertit la portion [start, end) d'un tampon de caractères en minutes depuis minuit.
+     * Variante pour la lecture de fichiers par blocs.
+     * @param buffer tampon de caractères
+     * @param start indice du premier caractère
+     * @param end indice suivant le dernier caractère
+     * @return nombre de minutes, ou {@link #INVALID} si le format est invalide
+     */
+    public static int parse(char[] buffer, int start, int end) {
+        int length = end - start;
+        if (length < 4 || length > 5) {
+            return INVALID;
+        }
+        int separator = end - 3;
+        char sep = buffer[separator];
+        if (sep != 'h' && sep != ':') {
+            return INVALID;
+        }
+        int hours = 0;
+        for (int i = start; i < separator; i++) {
+            int d = buffer[i] - '0';
+            if (d < 0 || d > 9) {
+                return INVALID;
+            }
+            hours = hours * 10 + d;
+        }
+        int tens = buffer[end - 2] - '0';
+        int units = buffer[end - 1] - '0';
+        if (tens < 0 || tens > 5 || units < 0 || units > 9) {
+            return INVALID;
+        }
+        return hours * 60 + tens * 10 + units;
+    }
+}
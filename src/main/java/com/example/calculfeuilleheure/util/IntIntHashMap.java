@@ -0,0 +1,212 @@
+package com.example.calculfeuilleheure.util;
+
+import java.util.Arrays;
+
+/**
+ * Table de hachage à adressage ouvert (sondage linéaire) associant des clés
+ * {@code int} à des valeurs {@code int}, sans boxing ni allocation par entrée.
+ * Utilisée pour les compteurs, totaux et dates max indexés par jour
+ * (epoch-day) ou par semaine (année-semaine compactée).
+ */
+public final class IntIntHashMap {
+
+    private static final int MIX = 0x9E3779B9;
+
+    private int[] keys;
+    private int[] values;
+    private boolean[] used;
+    private int size;
+    private int mask;
+    private int shift;
+
+    public IntIntHashMap() {
+        this(16);
+    }
+
+    /**
+     * @param expectedSize nombre d'entrées attendu
+     */
+    public IntIntHashMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * @param key clé
+     * @param defaultValue valeur retournée si la clé est absente
+     * @return valeur associée à la clé, ou la valeur par défaut
+     */
+    public int get(int key, int defaultValue) {
+        int slot = find(key);
+        return slot < 0 ? defaultValue : values[slot];
+    }
+
+    /**
+     * @param key clé
+     * @return true si la clé est présente
+     */
+    public boolean containsKey(int key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Associe une valeur à une clé, en remplaçant la valeur existante.
+     * @param key clé
+     * @param value valeur
+     */
+    public void put(int key, int value) {
+        // Le slot doit être calculé avant de lire le tableau, qui peut être réalloué
+        int slot = insert(key);
+        values[slot] = value;
+    }
+
+    /**
+     * Ajoute un delta à la valeur associée à la clé (0 si absente).
+     * @param key clé
+     * @param delta valeur à ajouter
+     * @return nouvelle valeur
+     */
+    public int addTo(int key, int delta) {
+        int slot = insert(key);
+        values[slot] += delta;
+        return values[slot];
+    }
+
+    /**
+     * Supprime une clé.
+     * @param key clé
+     * @return true si la clé était présente
+     */
+    public boolean remove(int key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return false;
+        }
+        // Suppression par décalage arrière pour conserver des chaînes de sondage sans trou
+        int gap = slot;
+        int i = (gap + 1) & mask;
+        while (used[i]) {
+            int ideal = slotOf(keys[i]);
+            if (((i - ideal) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                gap = i;
+            }
+            i = (i + 1) & mask;
+        }
+        used[gap] = false;
+        size--;
+        return true;
+    }
+
+    /**
+     * Ajoute les valeurs d'une autre table à celles de cette table, clé par clé.
+     * @param other table à ajouter
+     */
+    public void addAll(IntIntHashMap other) {
+        for (int i = 0; i < other.keys.length; i++) {
+            if (other.used[i]) {
+                addTo(other.keys[i], other.values[i]);
+            }
+        }
+    }
+
+    /**
+     * @return clés présentes, triées par ordre croissant
+     */
+    public int[] sortedKeys() {
+        int[] result = new int[size];
+        int n = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) {
+                result[n++] = keys[i];
+            }
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * @return nombre de clés présentes
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Vide la table en conservant sa capacité.
+     */
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    private int find(int key) {
+        int i = slotOf(key);
+        while (used[i]) {
+            if (keys[i] == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int insert(int key) {
+        int i = slotOf(key);
+        while (used[i]) {
+            if (keys[i] == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        if ((size + 1) * 2 > keys.length) {
+            grow();
+            return insert(key);
+        }
+        used[i] = true;
+        keys[i] = key;
+        values[i] = 0;
+        size++;
+        return i;
+    }
+
+    private int slotOf(int key) {
+        return (key * MIX) >>> shift;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int slot = slotOf(oldKeys[i]);
+                while (used[slot]) {
+                    slot = (slot + 1) & mask;
+                }
+                used[slot] = true;
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                size++;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+        shift = 32 - Integer.numberOfTrailingZeros(capacity);
+        size = 0;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = 4;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.calculfeuilleheure.util;
+
+import java.time.LocalDate;
+import java.time.temporal.IsoFields;
+
+/**
+ * Table de correspondance jour epoch → semaine ISO compactée
+ * ({@code année de la semaine * 100 + numéro de semaine}).
+ * <p>
+ * La table couvre la plage de dates rencontrée jusqu'ici, plus une marge d'un an
+ * de chaque côté ; elle est étendue à la demande. Une recherche dans la plage
+ * se réduit à une lecture de tableau. La semaine n'est calculée par
+ * {@link LocalDate} qu'une fois par lundi lors du remplissage.
+ * Les lectures sont sans verrou : chaque extension publie une nouvelle table.
+ */
+public final class IsoWeekTable {
+
+    // Marge ajoutée de chaque côté lors d'une extension
+    private static final int MARGIN_DAYS = 366;
+
+    // Au-delà de cette étendue (environ 200 ans), les dates isolées sont calculées sans cache
+    private static final int MAX_SPAN_DAYS = 200 * 366;
+
+    private static final class Table {
+        private final int firstDay;
+        private final int[] yearWeeks;
+
+        private Table(int firstDay, int[] yearWeeks) {
+            this.firstDay = firstDay;
+            this.yearWeeks = yearWeeks;
+        }
+    }
+
+    private static volatile Table table = new Table(0, new int[0]);
+
+    private IsoWeekTable() {
+    }
+
+    /**
+     * @param epochDay jour epoch
+     * @return semaine ISO compactée de ce jour
+     */
+    public static int yearWeek(int epochDay) {
+        Table current = table;
+        int index = epochDay - current.firstDay;
+        if (index >= 0 && index < current.yearWeeks.length) {
+            return current.yearWeeks[index];
+        }
+        return extend(epochDay);
+    }
+
+    /**
+     * Étend la table pour inclure le jour demandé, ou calcule directement
+     * la semaine si la table deviendrait trop grande.
+     */
+    private static synchronized int extend(int epochDay) {
+        Table current = table;
+        int index = epochDay - current.firstDay;
+        if (index >= 0 && index < current.yearWeeks.length) {
+            return current.yearWeeks[index];
+        }
+
+        // Bornes alignées sur le lundi, afin que chaque semaine soit remplie en entier
+        long first = monday((long) epochDay - MARGIN_DAYS);
+        long end = monday((long) epochDay + MARGIN_DAYS) + 7;
+        if (current.yearWeeks.length > 0) {
+            first = Math.min(first, current.firstDay);
+            end = Math.max(end, (long) current.firstDay + current.yearWeeks.length);
+        }
+        if (end - first > MAX_SPAN_DAYS) {
+            return compute(epochDay);
+        }
+
+        int[] yearWeeks = new int[(int) (end - first)];
+        for (int i = 0; i < yearWeeks.length; i += 7) {
+            int week = compute((int) (first + i));
+            for (int d = i; d < i + 7; d++) {
+                yearWeeks[d] = week;
+            }
+        }
+        table = new Table((int) first, yearWeeks);
+        return yearWeeks[(int) (epochDay - first)];
+    }
+
+    /**
+     * @return lundi de la semaine ISO du jour (le 01/01/1970 était un jeudi)
+     */
+    private static long monday(long epochDay) {
+        return epochDay - Math.floorMod(epochDay + 3, 7);
+    }
+
+    private static int compute(int epochDay) {
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        return date.get(IsoFields.WEEK_BASED_YEAR) * 100 + date.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR);
+    }
+}
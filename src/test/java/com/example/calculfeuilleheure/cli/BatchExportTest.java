@@ -0,0 +1,70 @@
+package com.example.calculfeuilleheure.cli;
+
+import com.example.calculfeuilleheure.model.TimesheetEntry;
+import com.example.calculfeuilleheure.persistence.TimesheetArchive;
+import com.example.calculfeuilleheure.persistence.TimesheetStore;
+import com.example.calculfeuilleheure.service.TotalsReport;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchExportTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testOnePdfPerEmployee() throws Exception {
+        Path input = directory.resolve("donnees");
+        writeStore(input.resolve("alice"), 3);
+        writeStore(input.resolve("bob"), 5);
+        Files.createDirectories(input.resolve("vide"));
+        TimesheetArchive.write(List.of(TimesheetEntry.ofMinutes(LocalDate.of(2024, 3, 4), 22 * 60, 6 * 60)),
+                input.resolve("carole" + TimesheetArchive.EXTENSION));
+
+        Path output = directory.resolve("pdf");
+        List<BatchExport.Result> results = new BatchExport(input, output, 2).run();
+
+        assertEquals(4, results.size());
+        assertEquals("alice", results.get(0).getEmployee());
+        assertNull(results.get(0).getError());
+        assertEquals(3, results.get(0).getEntryCount());
+        assertEquals(3 * 8 * 60, results.get(0).getTotalMinutes());
+        // Règles par défaut : 20 minutes de pause par journée de 8h
+        assertEquals(3 * (8 * 60 - 20), results.get(0).getPay().getPaidMinutes());
+        assertEquals(5, results.get(1).getEntryCount());
+        assertEquals("carole", results.get(2).getEmployee());
+        assertEquals(8 * 60, results.get(2).getTotalMinutes());
+        assertEquals(0, results.get(3).getEntryCount());
+        // Semaine du 3 mars 2025 : 3 jours d'alice et 5 jours de bob
+        assertEquals(8 * 8 * 60, results.get(0).getTotals().getWeeklyTotal(TimesheetEntry.yearWeek(2025, 10))
+                + results.get(1).getTotals().getWeeklyTotal(TimesheetEntry.yearWeek(2025, 10)));
+
+        TotalsReport all = BatchExport.combine(results);
+        assertEquals((3 + 5 + 1) * 8 * 60, all.getTotalMinutes());
+        assertEquals(8 * 8 * 60, all.getWeeklyTotal(TimesheetEntry.yearWeek(2025, 10)));
+        assertEquals(8 * 60, all.getDailyTotal((int) LocalDate.of(2024, 3, 4).toEpochDay()));
+        assertEquals(9, all.getEntryCount());
+        assertTrue(Files.size(output.resolve("alice.pdf")) > 0);
+        assertTrue(Files.size(output.resolve("bob.pdf")) > 0);
+    }
+
+    private static void writeStore(Path storeDirectory, int days) throws IOException {
+        TimesheetStore store = new TimesheetStore(storeDirectory);
+        ObservableList<TimesheetEntry> entries = FXCollections.observableArrayList(store.load());
+        store.attach(entries);
+        for (int i = 0; i < days; i++) {
+            entries.add(TimesheetEntry.ofMinutes(LocalDate.of(2025, 3, 3).plusDays(i), 8 * 60, 16 * 60));
+        }
+        store.close();
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.calculfeuilleheure.controller;
+
+import com.example.calculfeuilleheure.model.TimesheetEntry;
+import com.example.calculfeuilleheure.service.TotalsAggregator;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimesheetRowCacheTest {
+
+    // Lundi
+    private static final LocalDate MONDAY = LocalDate.of(2025, 1, 6);
+
+    @Test
+    public void testRowsAreReusedAndTotalsRefreshed() {
+        ObservableList<TimesheetEntry> entries = FXCollections.observableArrayList();
+        TotalsAggregator totals = new TotalsAggregator();
+        totals.attach(entries);
+        TimesheetRowCache cache = new TimesheetRowCache(totals, DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+        cache.attach(entries);
+
+        TimesheetEntry monday = TimesheetEntry.ofMinutes(MONDAY, 480, 720);
+        TimesheetEntry nextWeek = TimesheetEntry.ofMinutes(MONDAY.plusDays(7), 480, 720);
+        entries.addAll(monday, nextWeek);
+
+        TimesheetRowCache.Row row = cache.row(monday);
+        assertSame(row, cache.row(monday));
+        assertSame(row.dateProperty(), cache.row(monday).dateProperty());
+        assertEquals("06/01/2025", row.dateProperty().get());
+        assertEquals("4h00", row.workedHoursProperty().get());
+        assertEquals("-", row.dailyTotalProperty().get());
+        assertEquals("Semaine 2: 4h00", row.weeklyTotalProperty().get());
+        String nextWeekTotal = cache.row(nextWeek).weeklyTotalProperty().get();
+
+        // Deuxième entrée le même jour : total journalier affiché, total hebdomadaire mis à jour
+        TimesheetEntry afternoon = TimesheetEntry.ofMinutes(MONDAY, 780, 1020);
+        entries.add(afternoon);
+        assertEquals("8h00", row.dailyTotalProperty().get());
+        assertEquals("Semaine 2: 8h00", row.weeklyTotalProperty().get());
+        assertSame(nextWeekTotal, cache.row(nextWeek).weeklyTotalProperty().get());
+
+        // Entrée plus tardive dans la semaine : le total hebdomadaire passe sur elle
+        TimesheetEntry friday = TimesheetEntry.ofMinutes(MONDAY.plusDays(4), 480, 540);
+        entries.add(friday);
+        assertEquals("", row.weeklyTotalProperty().get());
+        assertEquals("Semaine 2: 9h00", cache.row(friday).weeklyTotalProperty().get());
+
+        entries.remove(friday);
+        assertEquals("Semaine 2: 8h00", row.weeklyTotalProperty().get());
+        entries.remove(afternoon);
+        assertEquals("-", row.dailyTotalProperty().get());
+        assertEquals(2, cache.size());
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.calculfeuilleheure.controller;
+
+import com.example.calculfeuilleheure.model.TimesheetEntry;
+import com.example.calculfeuilleheure.service.TotalsAggregator;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.control.TreeItem;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WeeklySummaryModelTest {
+
+    // Lundi de la semaine 2 de 2025
+    private static final LocalDate MONDAY = LocalDate.of(2025, 1, 6);
+
+    @Test
+    public void testWeeksAreSortedAndUpdatedIncrementally() {
+        ObservableList<TimesheetEntry> entries = FXCollections.observableArrayList();
+        entries.add(TimesheetEntry.ofMinutes(MONDAY.plusDays(7), 480, 720));
+        TotalsAggregator totals = new TotalsAggregator();
+        totals.attach(entries);
+        WeeklySummaryModel model = new WeeklySummaryModel(totals, DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+        model.attach(entries);
+
+        TimesheetEntry monday = TimesheetEntry.ofMinutes(MONDAY, 480, 720);
+        entries.addAll(monday, TimesheetEntry.ofMinutes(MONDAY, 780, 1020),
+                TimesheetEntry.ofMinutes(MONDAY.minusDays(365), 480, 540));
+
+        List<TreeItem<WeeklySummaryModel.SummaryRow>> weeks = model.getRoot().getChildren();
+        assertEquals(List.of("Semaine 1 - 2024", "Semaine 2 - 2025", "Semaine 3 - 2025"), labels(weeks));
+        WeeklySummaryModel.WeekItem week2 = (WeeklySummaryModel.WeekItem) weeks.get(1);
+        assertEquals("8h00", week2.getValue().totalProperty().get());
+        assertEquals("2 entrées", week2.getValue().countProperty().get());
+
+        // Les jours ne sont créés qu'à la première demande
+        assertFalse(week2.isLoaded());
+        assertEquals(List.of("06/01/2025"), labels(week2.getChildren()));
+        TreeItem<WeeklySummaryModel.SummaryRow> day = week2.getChildren().get(0);
+        assertEquals("8h00", day.getValue().totalProperty().get());
+        assertEquals(List.of("8h00 - 12h00", "13h00 - 17h00"), labels(day.getChildren()));
+        assertFalse(((WeeklySummaryModel.WeekItem) weeks.get(0)).isLoaded());
+
+        // Ajout dans une semaine chargée : sous-total et jours mis à jour, jour ouvert conservé
+        day.setExpanded(true);
+        entries.add(TimesheetEntry.ofMinutes(MONDAY.plusDays(2), 1320, 360));
+        assertEquals("16h00", week2.getValue().totalProperty().get());
+        assertEquals(List.of("06/01/2025", "08/01/2025"), labels(week2.getChildren()));
+        assertTrue(week2.getChildren().get(0).isExpanded());
+
+        // Suppression de la dernière entrée d'une semaine : le nœud disparaît
+        entries.remove(entries.size() - 2);
+        assertEquals(List.of("Semaine 2 - 2025", "Semaine 3 - 2025"), labels(model.getRoot().getChildren()));
+
+        entries.remove(monday);
+        assertEquals("12h00", week2.getValue().totalProperty().get());
+        assertEquals("2 entrées", week2.getValue().countProperty().get());
+    }
+
+    private static List<String> labels(List<TreeItem<WeeklySummaryModel.SummaryRow>> items) {
+        List<String> labels = new ArrayList<>();
+        for (TreeItem<WeeklySummaryModel.SummaryRow> item : items) {
+            labels.add(item.getValue().labelProperty().get());
+        }
+        return labels;
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.calculfeuilleheure.export;
+
+import com.example.calculfeuilleheure.model.TimesheetEntry;
+import com.example.calculfeuilleheure.service.TotalsAggregator;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IncrementalPdfExporterTest {
+
+    // Lundi de la semaine 2 de 2025
+    private static final LocalDate MONDAY = LocalDate.of(2025, 1, 6);
+
+    private static final Pattern ROW = Pattern.compile("\\d{2}/\\d{2}/\\d{4} \\d+h");
+
+    @TempDir
+    Path cache;
+
+    @Test
+    public void testOnlyChangedWeeksAreRendered() throws IOException {
+        List<TimesheetEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 70; i++) {
+            entries.add(TimesheetEntry.ofMinutes(MONDAY.plusDays(i), 8 * 60, 16 * 60));
+        }
+        IncrementalPdfExporter exporter = new IncrementalPdfExporter(cache);
+
+        IncrementalPdfExporter.Result first = exporter.createPdf(entries, totals(entries), new ByteArrayOutputStream());
+        assertEquals(10, first.getWeekCount());
+        assertEquals(10, first.getRenderedWeeks());
+        assertEquals(10, fragmentCount());
+
+        IncrementalPdfExporter.Result again = exporter.createPdf(entries, totals(entries), new ByteArrayOutputStream());
+        assertEquals(0, again.getRenderedWeeks());
+        assertEquals(10, again.getReusedWeeks());
+
+        // Une entrée ajoutée dans la semaine 3 et une nouvelle semaine
+        entries.add(10, TimesheetEntry.ofMinutes(MONDAY.plusDays(9), 18 * 60, 20 * 60));
+        entries.add(TimesheetEntry.ofMinutes(MONDAY.plusDays(70), 22 * 60, 6 * 60));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IncrementalPdfExporter.Result grown = exporter.createPdf(entries, totals(entries), out);
+        assertEquals(11, grown.getWeekCount());
+        assertEquals(2, grown.getRenderedWeeks());
+        // L'ancien fragment de la semaine 3 a été supprimé
+        assertEquals(11, fragmentCount());
+
+        try (PdfDocument pdf = new PdfDocument(new PdfReader(new ByteArrayInputStream(out.toByteArray())))) {
+            String text = PdfTextExtractor.getTextFromPage(pdf.getFirstPage());
+            assertTrue(text.contains("Feuille d'heure"));
+            assertTrue(text.contains("Total hebdomadaire"));
+            assertTrue(text.contains("06/01/2025"));
+            assertTrue(text.contains("Semaine 3: 58h00"));
+
+            String last = PdfTextExtractor.getTextFromPage(pdf.getLastPage());
+            assertTrue(last.contains("17/03/2025"));
+            assertTrue(last.contains("Total des heures travaillées : " + TimesheetEntry.formatTotalMinutes(70 * 480 + 120 + 480)));
+            assertTrue(last.contains("Page " + pdf.getNumberOfPages() + " / " + pdf.getNumberOfPages()));
+        }
+    }
+
+    @Test
+    public void testRowsFollowListOrderLikeFullExport() throws IOException {
+        List<TimesheetEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 21; i++) {
+            entries.add(TimesheetEntry.ofMinutes(MONDAY.plusDays(i), 8 * 60, 12 * 60));
+        }
+        // Entrées ajoutées en fin de liste, dans des semaines déjà présentes
+        entries.add(TimesheetEntry.ofMinutes(MONDAY.plusDays(1), 14 * 60, 18 * 60));
+        entries.add(TimesheetEntry.ofMinutes(MONDAY, 14 * 60, 15 * 60));
+        entries.add(TimesheetEntry.ofMinutes(MONDAY.plusDays(15), 14 * 60, 16 * 60));
+
+        ByteArrayOutputStream full = new ByteArrayOutputStream();
+        new TimesheetPdfExporter().createPdf(entries, totals(entries), full);
+        IncrementalPdfExporter exporter = new IncrementalPdfExporter(cache);
+        ByteArrayOutputStream incremental = new ByteArrayOutputStream();
+        IncrementalPdfExporter.Result result = exporter.createPdf(entries, totals(entries), incremental);
+        assertEquals(5, result.getWeekCount());
+
+        List<String> expected = rows(full.toByteArray());
+        assertEquals(entries.size(), expected.size());
+        assertEquals(expected, rows(incremental.toByteArray()));
+
+        // Les fragments d'une semaine répartie suivent aussi les entrées des autres suites
+        entries.set(22, TimesheetEntry.ofMinutes(MONDAY, 14 * 60, 16 * 60));
+        assertEquals(2, exporter.createPdf(entries, totals(entries), new ByteArrayOutputStream()).getRenderedWeeks());
+    }
+
+    @Test
+    public void testFingerprintFollowsEntries() {
+        List<TimesheetEntry> week = new ArrayList<>(List.of(
+                TimesheetEntry.ofMinutes(MONDAY, 8 * 60, 12 * 60),
+                TimesheetEntry.ofMinutes(MONDAY, 13 * 60, 17 * 60)));
+        long fingerprint = IncrementalPdfExporter.fingerprint(week);
+        assertEquals(fingerprint, IncrementalPdfExporter.fingerprint(new ArrayList<>(week)));
+
+        week.get(1).setEndMinute(17 * 60 + 1);
+        assertNotEquals(fingerprint, IncrementalPdfExporter.fingerprint(week));
+    }
+
+    private static TotalsAggregator totals(List<TimesheetEntry> entries) {
+        TotalsAggregator totals = new TotalsAggregator();
+        totals.rebuild(entries);
+        return totals;
+    }
+
+    /**
+     * @return lignes du tableau (date en tête), dans l'ordre du document
+     */
+    private static List<String> rows(byte[] pdfBytes) throws IOException {
+        List<String> rows = new ArrayList<>();
+        try (PdfDocument pdf = new PdfDocument(new PdfReader(new ByteArrayInputStream(pdfBytes)))) {
+            for (int i = 1; i <= pdf.getNumberOfPages(); i++) {
+                for (String line : PdfTextExtractor.getTextFromPage(pdf.getPage(i)).split("\n")) {
+                    if (ROW.matcher(line).lookingAt()) {
+                        rows.add(line);
+                    }
+                }
+            }
+        }
+        return rows;
+    }
+
+    private long fragmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(cache)) {
+            return files.count();
+        }
+    }
+}
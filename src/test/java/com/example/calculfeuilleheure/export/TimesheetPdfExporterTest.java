@@ -0,0 +1,55 @@
+package com.example.calculfeuilleheure.export;
+
+import com.example.calculfeuilleheure.model.TimesheetEntry;
+import com.example.calculfeuilleheure.service.TotalsAggregator;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimesheetPdfExporterTest {
+
+    @Test
+    public void testContentFooterAndSharedFonts() throws IOException {
+        List<TimesheetEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            entries.add(TimesheetEntry.ofMinutes(LocalDate.of(2025, 1, 6).plusDays(i), 8 * 60 + 30, 17 * 60));
+        }
+        TotalsAggregator totals = new TotalsAggregator();
+        totals.rebuild(entries);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new TimesheetPdfExporter().createPdf(entries, totals, out);
+
+        try (PdfDocument pdf = new PdfDocument(new PdfReader(new ByteArrayInputStream(out.toByteArray())))) {
+            int pages = pdf.getNumberOfPages();
+            assertTrue(pages > 1);
+
+            String first = PdfTextExtractor.getTextFromPage(pdf.getFirstPage());
+            assertTrue(first.contains("Feuille d'heure"));
+            assertTrue(first.contains("Généré le"));
+            assertTrue(first.contains("Total hebdomadaire"));
+            assertTrue(first.contains("06/01/2025"));
+            assertTrue(first.contains("8h30"));
+            assertTrue(first.contains("Page 1 /"));
+
+            String last = PdfTextExtractor.getTextFromPage(pdf.getLastPage());
+            assertTrue(last.contains("Total des heures travaillées : " + TimesheetEntry.formatTotalMinutes(200 * 510)));
+
+            // Une seule police, partagée par toutes les pages
+            for (int i = 1; i <= pages; i++) {
+                assertEquals(1, pdf.getPage(i).getResources().getResource(PdfName.Font).size());
+            }
+        }
+    }
+}
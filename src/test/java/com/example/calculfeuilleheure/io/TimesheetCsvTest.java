@@ -0,0 +1,103 @@
+package com.example.calculfeuilleheure.io;
+
+import com.example.calculfeuilleheure.model.TimesheetEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimesheetCsvTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        List<TimesheetEntry> entries = new ArrayList<>();
+        // Plus de lignes que le tampon de lecture n'en contient
+        for (int i = 0; i < 10_000; i++) {
+            entries.add(TimesheetEntry.ofMinutes(LocalDate.of(2024, 1, 1).plusDays(i / 3), (i * 7) % 1440, (i * 13) % 1440));
+        }
+        Path file = directory.resolve("heures.csv");
+        TimesheetCsvWriter.write(entries, file);
+
+        assertEquals(describe(entries), describe(TimesheetCsvReader.read(file)));
+    }
+
+    @Test
+    public void testAcceptedFormats() throws IOException {
+        String csv = "Date;Début;Fin\r\n"
+                + "2025-01-06;08h30;17h45\r\n"
+                + "\r\n"
+                + "07/01/2025 ; 22:00 ; 6h00\n"
+                + "2025-01-08;9h00;12h00";
+        List<TimesheetEntry> entries = new TimesheetCsvReader(new StringReader(csv)).readAll();
+
+        assertEquals(List.of("2025-01-06 8h30-17h45", "2025-01-07 22h00-6h00", "2025-01-08 9h00-12h00"),
+                describe(entries));
+    }
+
+    @Test
+    public void testByteOrderMarkWithoutHeader() throws IOException {
+        // Fichier « CSV UTF-8 » d'Excel : BOM puis directement les données
+        Path file = directory.resolve("excel.csv");
+        Files.write(file, "\uFEFF2025-01-06;08h30;17h45\r\n2025-01-07;9h00;12h00\r\n".getBytes(StandardCharsets.UTF_8));
+        assertEquals(List.of("2025-01-06 8h30-17h45", "2025-01-07 9h00-12h00"),
+                describe(TimesheetCsvReader.read(file)));
+
+        Files.write(file, "\uFEFFdate;debut;fin\n2025-01-06;08h30;17h45\n".getBytes(StandardCharsets.UTF_8));
+        assertEquals(List.of("2025-01-06 8h30-17h45"), describe(TimesheetCsvReader.read(file)));
+    }
+
+    @Test
+    public void testUnknownFirstLineIsAnError() {
+        // Seul l'en-tête écrit par l'export est ignoré
+        assertEquals(1, assertThrows(TimesheetImportException.class,
+                () -> new TimesheetCsvReader(new StringReader("Jour;De;A\n2025-01-06;8h00;9h00")).readAll())
+                .getLineNumber());
+    }
+
+    @Test
+    public void testErrorReportsLineNumber() {
+        String csv = "date;debut;fin\n"
+                + "2025-01-06;08h30;17h45\n"
+                + "2025-01-07;08h75;17h45\n";
+        TimesheetImportException e = assertThrows(TimesheetImportException.class,
+                () -> new TimesheetCsvReader(new StringReader(csv)).readAll());
+        assertEquals(3, e.getLineNumber());
+
+        assertEquals(2, assertThrows(TimesheetImportException.class,
+                () -> new TimesheetCsvReader(new StringReader("2025-01-06;8h00;9h00\n2025-02-30;8h00;9h00")).readAll())
+                .getLineNumber());
+        assertEquals(1, assertThrows(TimesheetImportException.class,
+                () -> new TimesheetCsvReader(new StringReader("2025-01-06;8h00")).readAll())
+                .getLineNumber());
+    }
+
+    @Test
+    public void testHoursBeyondTheDayAreRejected() {
+        // Format accepté jusqu'à 99h59, mais une heure d'entrée s'arrête à 23h59
+        TimesheetImportException e = assertThrows(TimesheetImportException.class,
+                () -> new TimesheetCsvReader(new StringReader("2025-01-06;20h00;23h59\n2025-01-06;20h00;45h00")).readAll());
+        assertEquals(2, e.getLineNumber());
+        assertEquals(1, assertThrows(TimesheetImportException.class,
+                () -> new TimesheetCsvReader(new StringReader("2025-01-06;24h00;06h00")).readAll())
+                .getLineNumber());
+    }
+
+    private static List<String> describe(List<TimesheetEntry> entries) {
+        return entries.stream()
+                .map(e -> e.getDate() + " " + e.getHoursFormatted() + "-" + e.getEndHoursFormatted())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.calculfeuilleheure.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsTest {
+
+    @Test
+    public void testLatencyStat() {
+        LatencyStat stat = new LatencyStat("test");
+        for (int i = 0; i < 98; i++) {
+            stat.record(3_000); // 3 µs
+        }
+        stat.record(1_000_000); // 1 ms
+        stat.record(5_000_000); // 5 ms
+
+        LatencySnapshot snapshot = stat.snapshot();
+        assertEquals(100, snapshot.getCount());
+        assertEquals(5_000_000, snapshot.getMaxNanos());
+        assertEquals(4, snapshot.getP50Micros());
+        assertEquals(1024, snapshot.getP99Micros());
+        assertEquals((98 * 3_000 + 6_000_000) / 1000.0 / 100, snapshot.getMeanMicros(), 1e-9);
+
+        stat.reset();
+        assertEquals(0, stat.snapshot().getCount());
+        assertEquals(0, stat.snapshot().getP99Micros());
+    }
+
+    @Test
+    public void testMBeanIsRegistered() throws Exception {
+        Metrics.registerMBean();
+        Metrics.registerMBean();
+        Metrics.PDF_ROWS.add(7);
+        Metrics.PDF_EXPORT.record(2_000);
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(Metrics.OBJECT_NAME);
+        assertTrue((Long) server.getAttribute(name, "PdfRowsWritten") >= 7);
+        CompositeData export = (CompositeData) server.getAttribute(name, "PdfExport");
+        assertTrue((Long) export.get("count") >= 1);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.calculfeuilleheure.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimesheetColumnsTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 3);
+
+    @Test
+    public void testSortedStableInsertAndRemove() {
+        TimesheetColumns columns = new TimesheetColumns(1);
+        columns.add(TimesheetEntry.ofMinutes(DAY.plusDays(2), 480, 600));
+        columns.add(TimesheetEntry.ofMinutes(DAY, 480, 720));
+        columns.add(TimesheetEntry.ofMinutes(DAY.plusDays(2), 780, 900));
+        assertEquals(1, columns.add(TimesheetEntry.ofMinutes(DAY, 1320, 360)));
+
+        assertEquals(4, columns.size());
+        assertEquals(List.of("2025-03-03 8h00-12h00", "2025-03-03 22h00-6h00",
+                "2025-03-05 8h00-10h00", "2025-03-05 13h00-15h00"), describe(columns.asList()));
+        assertEquals(4 * 60 + 8 * 60, columns.totalMinutesForDay((int) DAY.toEpochDay()));
+
+        columns.remove(0);
+        assertEquals("2025-03-03 22h00-6h00", describe(columns.asList()).get(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> columns.getStartMinute(3));
+    }
+
+    @Test
+    public void testMatchesLinearScan() {
+        Random random = new Random(5);
+        List<TimesheetEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            entries.add(TimesheetEntry.ofMinutes(DAY.plusDays(random.nextInt(400)), random.nextInt(1440), random.nextInt(1440)));
+        }
+        TimesheetColumns columns = TimesheetColumns.of(entries);
+
+        // Tri stable : même ordre que le tri de la liste par date
+        List<TimesheetEntry> sorted = new ArrayList<>(entries);
+        sorted.sort((a, b) -> a.getDate().compareTo(b.getDate()));
+        assertEquals(describe(sorted), describe(columns.asList()));
+
+        for (int d = 0; d < 400; d += 7) {
+            LocalDate from = DAY.plusDays(d);
+            LocalDate to = from.plusDays(10);
+            int expected = entries.stream()
+                    .filter(e -> !e.getDate().isBefore(from) && !e.getDate().isAfter(to))
+                    .mapToInt(TimesheetEntry::getWorkedMinutes).sum();
+            assertEquals(expected, columns.totalMinutesBetween((int) from.toEpochDay(), (int) to.toEpochDay()));
+        }
+
+        int[] total = new int[2];
+        columns.forEachDayTotal(0, columns.size(), (day, count, minutes) -> {
+            assertEquals(TimesheetEntry.calculateTotalMinutesForDate(entries, LocalDate.ofEpochDay(day)), minutes);
+            assertEquals(entries.stream().filter(e -> e.getEpochDay() == day).count(), count);
+            total[0] += count;
+        });
+        assertEquals(entries.size(), total[0]);
+    }
+
+    private static List<String> describe(List<TimesheetEntry> entries) {
+        List<String> result = new ArrayList<>();
+        for (TimesheetEntry e : entries) {
+            result.add(e.getDate() + " " + e.getHoursFormatted() + "-" + e.getEndHoursFormatted());
+        }
+        return result;
+    }
+}
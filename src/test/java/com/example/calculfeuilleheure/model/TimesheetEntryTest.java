@@ -2,6 +2,8 @@ package com.example.calculfeuilleheure.model;
 
 import org.junit.jupiter.api.Test;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -27,4 +29,61 @@ public class TimesheetEntryTest {
         entry.setEndHours(14.75);
         assertEquals("14h45", entry.getEndHoursFormatted());
     }
+
+    @Test
+    public void testMinuteRepresentation() {
+        TimesheetEntry entry = TimesheetEntry.ofMinutes(LocalDate.now(), 8 * 60 + 30, 17 * 60 + 20);
+        assertEquals(510, entry.getStartMinute());
+        assertEquals(8.5, entry.getHours(), 0.0);
+        assertEquals(530, entry.getWorkedMinutes());
+        assertEquals("8h50", entry.getWorkedHoursFormatted());
+
+        entry.setHours(9.25);
+        assertEquals(555, entry.getStartMinute());
+    }
+
+    @Test
+    public void testWeeklyTotalIsExact() {
+        // 3000 entrées de 0h20 : la somme en double accumulerait des erreurs d'arrondi
+        LocalDate monday = LocalDate.of(2025, 3, 3);
+        List<TimesheetEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            entries.add(TimesheetEntry.ofMinutes(monday.plusDays(i % 7), 8 * 60, 8 * 60 + 20));
+        }
+        int weekYear = entries.get(0).getWeekYear();
+        int weekNumber = entries.get(0).getWeekNumber();
+        assertEquals(60_000, TimesheetEntry.calculateTotalMinutesForWeek(entries, weekYear, weekNumber));
+        assertEquals("1000h00", TimesheetEntry.formatTotalMinutes(60_000));
+    }
+
+    @Test
+    public void testWeekIsRecomputedAfterSetDate() {
+        // Le 29/12/2025 appartient à la semaine 1 de 2026
+        TimesheetEntry entry = TimesheetEntry.ofMinutes(LocalDate.of(2025, 12, 29), 480, 960);
+        assertEquals(2026, entry.getWeekYear());
+        assertEquals(1, entry.getWeekNumber());
+
+        entry.setDate(LocalDate.of(2021, 1, 3));
+        assertEquals(2020, entry.getWeekYear());
+        assertEquals(53, entry.getWeekNumber());
+        assertEquals(202053, entry.getYearWeek());
+    }
+
+    @Test
+    public void testStaticHelpersAcrossYearBoundary() {
+        // Le 31/12/2020 et le 01/01/2021 appartiennent à la semaine ISO 53 de 2020
+        List<TimesheetEntry> entries = List.of(
+                new TimesheetEntry(LocalDate.of(2020, 12, 31), 8.0, 12.0),
+                new TimesheetEntry(LocalDate.of(2021, 1, 1), 8.0, 10.0),
+                new TimesheetEntry(LocalDate.of(2021, 1, 1), 14.0, 15.0));
+
+        assertEquals(53, entries.get(1).getWeekNumber());
+        assertEquals(2020, entries.get(1).getWeekYear());
+        assertEquals(7.0, TimesheetEntry.calculateTotalHoursForWeek(entries, 2020, 53), 0.0);
+        assertEquals(3.0, TimesheetEntry.calculateTotalHoursForDate(entries, LocalDate.of(2021, 1, 1)), 0.0);
+        assertTrue(entries.get(1).isPartOfGroup(entries));
+        assertFalse(entries.get(0).isPartOfGroup(entries));
+        assertTrue(entries.get(2).isLastInWeek(entries));
+        assertFalse(entries.get(0).isLastInWeek(entries));
+    }
 }
@@ -0,0 +1,80 @@
+package com.example.calculfeuilleheure.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimesheetRepositoryTest {
+
+    private static final LocalDate START = LocalDate.of(2020, 12, 21);
+
+    @Test
+    public void testIndexMatchesLinearScan() {
+        Random random = new Random(3);
+        TimesheetRepository repository = new TimesheetRepository();
+        List<TimesheetEntry> reference = new ArrayList<>();
+
+        for (int step = 0; step < 1500; step++) {
+            if (reference.isEmpty() || random.nextInt(3) > 0) {
+                TimesheetEntry entry = TimesheetEntry.ofMinutes(START.plusDays(random.nextInt(30)),
+                        random.nextInt(1440), random.nextInt(1440));
+                int index = random.nextInt(reference.size() + 1);
+                repository.add(index, entry);
+                reference.add(index, entry);
+            } else {
+                int index = random.nextInt(reference.size());
+                assertSame(reference.remove(index), repository.remove(index));
+            }
+        }
+
+        assertEquals(reference, repository);
+        for (int i = 0; i < 30; i++) {
+            TimesheetEntry probe = TimesheetEntry.ofMinutes(START.plusDays(i), 0, 0);
+            LocalDate date = probe.getDate();
+            int expectedDay = reference.stream().filter(e -> e.getDate().equals(date))
+                    .mapToInt(TimesheetEntry::getWorkedMinutes).sum();
+            int expectedWeek = reference.stream().filter(e -> e.getYearWeek() == probe.getYearWeek())
+                    .mapToInt(TimesheetEntry::getWorkedMinutes).sum();
+            LocalDate expectedMax = reference.stream().filter(e -> e.getYearWeek() == probe.getYearWeek())
+                    .map(TimesheetEntry::getDate).max(LocalDate::compareTo).orElse(null);
+
+            assertEquals(expectedDay, repository.totalMinutesForDate(date));
+            assertEquals(expectedWeek, repository.totalMinutesForWeek(probe.getWeekYear(), probe.getWeekNumber()));
+            assertEquals(date.equals(expectedMax), repository.isLastInWeek(probe), date.toString());
+            // Les aides de TimesheetEntry donnent le même résultat sur une liste simple et sur le dépôt
+            assertEquals(date.equals(expectedMax), probe.isLastInWeek(reference), date.toString());
+            assertEquals(probe.isLastInWeek(reference), probe.isLastInWeek(repository));
+            assertEquals(probe.isPartOfGroup(reference), probe.isPartOfGroup(repository));
+            assertEquals(expectedDay, TimesheetEntry.calculateTotalMinutesForDate(repository, date));
+        }
+    }
+
+    @Test
+    public void testHelpersDelegateWithBaselineSemantics() {
+        // Semaine 2 de 2025 : entrées le lundi et le mercredi
+        LocalDate monday = LocalDate.of(2025, 1, 6);
+        List<TimesheetEntry> list = List.of(
+                TimesheetEntry.ofMinutes(monday, 8 * 60, 12 * 60),
+                TimesheetEntry.ofMinutes(monday.plusDays(2), 8 * 60, 12 * 60),
+                TimesheetEntry.ofMinutes(monday.plusDays(2), 13 * 60, 14 * 60));
+        TimesheetRepository repository = new TimesheetRepository(list);
+
+        for (List<TimesheetEntry> entries : List.of(list, repository)) {
+            assertTrue(list.get(2).isLastInWeek(entries));
+            assertFalse(list.get(0).isLastInWeek(entries));
+            // Semaine sans aucune entrée dans la liste
+            assertFalse(TimesheetEntry.ofMinutes(monday.plusDays(7), 8 * 60, 9 * 60).isLastInWeek(entries));
+            // Jeudi absent de la liste, postérieur à toutes les entrées de la semaine
+            assertFalse(TimesheetEntry.ofMinutes(monday.plusDays(3), 8 * 60, 9 * 60).isLastInWeek(entries));
+            assertTrue(list.get(1).isPartOfGroup(entries));
+            assertFalse(list.get(0).isPartOfGroup(entries));
+            assertEquals(5 * 60, TimesheetEntry.calculateTotalMinutesForDate(entries, monday.plusDays(2)));
+            assertEquals(9 * 60, TimesheetEntry.calculateTotalMinutesForWeek(entries, 2025, 2));
+        }
+    }
+}
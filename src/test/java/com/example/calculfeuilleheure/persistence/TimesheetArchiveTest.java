@@ -0,0 +1,132 @@
+package com.example.calculfeuilleheure.persistence;
+
+import com.example.calculfeuilleheure.model.TimesheetEntry;
+import com.example.calculfeuilleheure.util.IntIntHashMap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimesheetArchiveTest {
+
+    private static final LocalDate DAY = LocalDate.of(2023, 1, 2);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testRoundTripSortsEntriesAndKeepsWeeklyTotals() throws IOException {
+        Random random = new Random(7);
+        List<TimesheetEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 3_000; i++) {
+            entries.add(TimesheetEntry.ofMinutes(DAY.plusDays(random.nextInt(1100)),
+                    random.nextInt(1440), random.nextInt(1440)));
+        }
+        // Nuit, journée vide et date antérieure à 1970
+        entries.add(TimesheetEntry.ofMinutes(DAY, 22 * 60, 6 * 60));
+        entries.add(TimesheetEntry.ofMinutes(DAY, 9 * 60, 9 * 60));
+        entries.add(TimesheetEntry.ofMinutes(LocalDate.of(1965, 6, 1), 0, 1439));
+
+        Path file = directory.resolve("alice" + TimesheetArchive.EXTENSION);
+        // Petits blocs : des semaines sont à cheval sur deux blocs
+        TimesheetArchive.write(entries, file, 100);
+        TimesheetArchive archive = TimesheetArchive.open(file);
+
+        assertEquals(entries.size(), archive.size());
+        assertEquals(31, archive.getBlockCount());
+        List<TimesheetEntry> expected = new ArrayList<>(entries);
+        expected.sort(Comparator.comparingInt(TimesheetEntry::getEpochDay)
+                .thenComparingInt(TimesheetEntry::getStartMinute)
+                .thenComparingInt(TimesheetEntry::getEndMinute));
+        assertEquals(describe(expected), describe(archive.readAll()));
+
+        IntIntHashMap expectedTotals = new IntIntHashMap();
+        for (TimesheetEntry entry : entries) {
+            expectedTotals.addTo(entry.getYearWeek(), entry.getWorkedMinutes());
+        }
+        IntIntHashMap totals = archive.weeklyTotals();
+        assertArrayEquals(expectedTotals.sortedKeys(), totals.sortedKeys());
+        for (int yearWeek : expectedTotals.sortedKeys()) {
+            assertEquals(expectedTotals.get(yearWeek, -1), totals.get(yearWeek, -1));
+        }
+
+        // Moins d'octets par entrée que l'instantané (8 octets)
+        assertTrue(Files.size(file) < entries.size() * 6L, "Archive de " + Files.size(file) + " octets");
+    }
+
+    @Test
+    public void testReadPeriod() throws IOException {
+        List<TimesheetEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 365; i++) {
+            entries.add(TimesheetEntry.ofMinutes(DAY.plusDays(i), 8 * 60, 12 * 60));
+            entries.add(TimesheetEntry.ofMinutes(DAY.plusDays(i), 13 * 60, 17 * 60));
+        }
+        Path file = directory.resolve("bob" + TimesheetArchive.EXTENSION);
+        TimesheetArchive.write(entries, file, 16);
+        TimesheetArchive archive = TimesheetArchive.open(file);
+
+        List<TimesheetEntry> march = archive.read(LocalDate.of(2023, 3, 1), LocalDate.of(2023, 4, 1));
+        assertEquals(62, march.size());
+        assertEquals(LocalDate.of(2023, 3, 1), march.get(0).getDate());
+        assertEquals(LocalDate.of(2023, 3, 31), march.get(61).getDate());
+        assertTrue(archive.read(LocalDate.of(2030, 1, 1), LocalDate.of(2031, 1, 1)).isEmpty());
+        // Semaine 1 de 2023 : du lundi 2 au dimanche 8 janvier
+        assertEquals(7 * 8 * 60, archive.weeklyTotals().get(TimesheetEntry.yearWeek(2023, 1), 0));
+    }
+
+    @Test
+    public void testEmptyAndCorruptedArchives() throws IOException {
+        Path file = directory.resolve("vide" + TimesheetArchive.EXTENSION);
+        TimesheetArchive.write(List.of(), file);
+        TimesheetArchive empty = TimesheetArchive.open(file);
+        assertEquals(0, empty.size());
+        assertTrue(empty.readAll().isEmpty());
+        assertEquals(0, empty.weeklyTotals().size());
+
+        TimesheetArchive.write(List.of(TimesheetEntry.ofMinutes(DAY, 480, 960)), file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+        assertThrows(IOException.class, () -> TimesheetArchive.open(file));
+
+        // Taille des entrées d'un bloc incohérente
+        bytes[15]++;
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> TimesheetArchive.open(file).readAll());
+    }
+
+    @Test
+    public void testEntriesBeyondTheDayAreRejected() throws IOException {
+        Path file = directory.resolve("dave" + TimesheetArchive.EXTENSION);
+        // Le lecteur n'accepte que des heures d'une journée : l'écriture les refuse d'emblée
+        assertThrows(IllegalArgumentException.class, () -> TimesheetArchive.write(
+                List.of(TimesheetEntry.ofMinutes(DAY, 8 * 60, 12 * 60), TimesheetEntry.ofMinutes(DAY, 30 * 60, 31 * 60)), file));
+        assertThrows(IllegalArgumentException.class, () -> TimesheetArchive.write(
+                List.of(TimesheetEntry.ofMinutes(DAY, 20 * 60, 45 * 60)), file));
+        assertFalse(Files.exists(file));
+        assertFalse(Files.exists(file.resolveSibling(file.getFileName() + ".tmp")));
+
+        // Une archive existante n'est pas touchée
+        List<TimesheetEntry> valid = List.of(TimesheetEntry.ofMinutes(DAY, 22 * 60, 23 * 60 + 59));
+        TimesheetArchive.write(valid, file);
+        assertThrows(IllegalArgumentException.class, () -> TimesheetArchive.write(
+                List.of(TimesheetEntry.ofMinutes(DAY, 30 * 60, 6 * 60)), file));
+        assertEquals(describe(valid), describe(TimesheetArchive.open(file).readAll()));
+    }
+
+    private static List<String> describe(List<TimesheetEntry> entries) {
+        return entries.stream()
+                .map(e -> e.getDate() + " " + e.getHoursFormatted() + "-" + e.getEndHoursFormatted())
+                .collect(Collectors.toList());
+    }
+}
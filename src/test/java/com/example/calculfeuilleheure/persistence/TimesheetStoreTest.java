@@ -0,0 +1,128 @@
+package com.example.calculfeuilleheure.persistence;
+
+import com.example.calculfeuilleheure.model.TimesheetEntry;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimesheetStoreTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 2, 3);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testJournalIsReplayedAfterRestart() throws IOException {
+        ObservableList<TimesheetEntry> entries = FXCollections.observableArrayList();
+        TimesheetStore store = new TimesheetStore(directory);
+        entries.setAll(store.load());
+        store.attach(entries);
+
+        entries.add(TimesheetEntry.ofMinutes(DAY, 480, 720));
+        entries.addAll(TimesheetEntry.ofMinutes(DAY, 780, 1020), TimesheetEntry.ofMinutes(DAY.plusDays(1), 1320, 360));
+        entries.add(0, TimesheetEntry.ofMinutes(DAY.minusDays(1), 540, 600));
+        entries.remove(1);
+        entries.set(1, TimesheetEntry.ofMinutes(DAY, 800, 1000));
+        store.sync();
+
+        // Rechargement sans fermeture (arrêt brutal) : seul le journal est disponible
+        List<TimesheetEntry> reloaded = new TimesheetStore(directory).load();
+        assertEquals(describe(entries), describe(reloaded));
+    }
+
+    @Test
+    public void testCompactionAndTornTail() throws IOException {
+        ObservableList<TimesheetEntry> entries = FXCollections.observableArrayList();
+        TimesheetStore store = new TimesheetStore(directory, 10);
+        entries.setAll(store.load());
+        store.attach(entries);
+        for (int i = 0; i < 25; i++) {
+            entries.add(TimesheetEntry.ofMinutes(DAY.plusDays(i), 480, 480 + i));
+        }
+        entries.remove(3);
+        store.sync();
+
+        // Enregistrement incomplet en fin de journal
+        Files.write(directory.resolve(TimesheetStore.JOURNAL_FILE), new byte[]{1, 0, 0}, StandardOpenOption.APPEND);
+
+        TimesheetStore reopened = new TimesheetStore(directory, 10);
+        ObservableList<TimesheetEntry> reloaded = FXCollections.observableArrayList(reopened.load());
+        assertEquals(describe(entries), describe(reloaded));
+
+        reopened.attach(reloaded);
+        reloaded.add(TimesheetEntry.ofMinutes(DAY, 0, 60));
+        reopened.close();
+        assertEquals(1, snapshots().size());
+
+        List<TimesheetEntry> afterClose = new TimesheetStore(directory).load();
+        assertEquals(describe(reloaded), describe(afterClose));
+    }
+
+    @Test
+    public void testStaleJournalIsIgnoredAfterSnapshot() throws IOException {
+        ObservableList<TimesheetEntry> entries = FXCollections.observableArrayList();
+        TimesheetStore store = new TimesheetStore(directory);
+        entries.setAll(store.load());
+        store.attach(entries);
+        entries.add(TimesheetEntry.ofMinutes(DAY, 480, 720));
+        store.sync();
+        byte[] oldJournal = Files.readAllBytes(directory.resolve(TimesheetStore.JOURNAL_FILE));
+        store.compact();
+
+        // Simule un arrêt entre l'écriture de l'instantané et la réinitialisation du journal
+        Files.write(directory.resolve(TimesheetStore.JOURNAL_FILE), oldJournal);
+        assertEquals(1, new TimesheetStore(directory).load().size());
+    }
+
+    @Test
+    public void testOlderGenerationIsUsedWhenNewestIsCorrupted() throws IOException {
+        ObservableList<TimesheetEntry> entries = FXCollections.observableArrayList();
+        TimesheetStore store = new TimesheetStore(directory);
+        entries.setAll(store.load());
+        store.attach(entries);
+        entries.add(TimesheetEntry.ofMinutes(DAY, 480, 720));
+        store.compact();
+        Path first = store.snapshotPath(1);
+        byte[] firstSnapshot = Files.readAllBytes(first);
+
+        entries.add(TimesheetEntry.ofMinutes(DAY, 780, 1020));
+        store.close();
+        // Le nouvel instantané n'écrase pas le précédent, qui est ensuite supprimé
+        Path second = store.snapshotPath(2);
+        assertEquals(List.of(second), snapshots());
+        assertEquals(2, new TimesheetStore(directory).load().size());
+
+        Files.write(first, firstSnapshot);
+        byte[] secondSnapshot = Files.readAllBytes(second);
+        Files.write(second, new byte[]{secondSnapshot[0], secondSnapshot[1]});
+        assertEquals(describe(entries.subList(0, 1)), describe(new TimesheetStore(directory).load()));
+
+        Files.write(first, new byte[0]);
+        assertThrows(IOException.class, () -> new TimesheetStore(directory).load());
+    }
+
+    private List<Path> snapshots() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(f -> f.getFileName().toString().endsWith(".snapshot")).collect(Collectors.toList());
+        }
+    }
+
+    private static List<String> describe(List<TimesheetEntry> entries) {
+        return entries.stream()
+                .map(e -> e.getDate() + " " + e.getHoursFormatted() + "-" + e.getEndHoursFormatted())
+                .collect(Collectors.toList());
+    }
+}
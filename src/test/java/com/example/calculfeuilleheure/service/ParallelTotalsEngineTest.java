@@ -0,0 +1,117 @@
+package com.example.calculfeuilleheure.service;
+
+import com.example.calculfeuilleheure.model.TimesheetColumns;
+import com.example.calculfeuilleheure.model.TimesheetEntry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Vérifie que le calcul parallèle donne exactement les totaux du calcul
+ * séquentiel, quels que soient le nombre de threads et le découpage.
+ */
+public class ParallelTotalsEngineTest {
+
+    @Test
+    public void testDeterministicAcrossThreadCounts() {
+        List<TimesheetEntry> entries = randomEntries(new Random(7), 50_000);
+        TotalsReport expected = ParallelTotalsEngine.aggregateSequential(entries);
+        assertSameReport(expected, ParallelTotalsEngine.aggregateSequential(TimesheetColumns.of(entries)));
+
+        // L'ordre des entrées ne change rien non plus
+        List<TimesheetEntry> shuffled = new ArrayList<>(entries);
+        Collections.shuffle(shuffled, new Random(3));
+
+        for (int threads : new int[]{1, 2, 8}) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                ParallelTotalsEngine engine = new ParallelTotalsEngine(pool, 1000);
+                assertSameReport(expected, engine.aggregate(entries));
+                assertSameReport(expected, engine.aggregate(shuffled));
+                assertSameReport(expected, engine.aggregate(TimesheetColumns.of(shuffled)));
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    @Test
+    public void testMatchesAggregatorAndCalendarRollups() {
+        List<TimesheetEntry> entries = randomEntries(new Random(11), 5_000);
+        TotalsReport report = new ParallelTotalsEngine(ForkJoinPool.commonPool(), 100).aggregate(entries);
+
+        TotalsAggregator aggregator = new TotalsAggregator();
+        aggregator.rebuild(entries);
+        long sum = 0;
+        for (int day : report.getDays()) {
+            assertEquals(aggregator.getDailyTotal(day), report.getDailyTotal(day));
+        }
+        for (int week : report.getWeeks()) {
+            assertEquals(aggregator.getWeeklyTotal(week), report.getWeeklyTotal(week));
+        }
+        for (int month : report.getMonths()) {
+            sum += report.getMonthlyTotal(month / 100, month % 100);
+        }
+        assertEquals(report.getTotalMinutes(), sum);
+        long yearly = 0;
+        for (int year : report.getYears()) {
+            yearly += report.getYearlyTotal(year);
+        }
+        assertEquals(report.getTotalMinutes(), yearly);
+        assertEquals(5_000, report.getEntryCount());
+    }
+
+    @Test
+    public void testPerEmployeeRollup() {
+        List<TimesheetEntry> alice = randomEntries(new Random(1), 3_000);
+        List<TimesheetEntry> bob = new LinkedList<>(randomEntries(new Random(2), 2_000));
+        SortedMap<String, TotalsReport> reports = new ParallelTotalsEngine(ForkJoinPool.commonPool(), 500)
+                .aggregateByEmployee(Map.of("bob", bob, "alice", alice));
+
+        assertEquals(List.of("alice", "bob"), new ArrayList<>(reports.keySet()));
+        assertSameReport(ParallelTotalsEngine.aggregateSequential(alice), reports.get("alice"));
+        assertSameReport(ParallelTotalsEngine.aggregateSequential(bob), reports.get("bob"));
+
+        List<TimesheetEntry> all = new ArrayList<>(alice);
+        all.addAll(bob);
+        assertSameReport(ParallelTotalsEngine.aggregateSequential(all), TotalsReport.combine(reports.values()));
+    }
+
+    private static List<TimesheetEntry> randomEntries(Random random, int count) {
+        List<TimesheetEntry> entries = new ArrayList<>(count);
+        LocalDate start = LocalDate.of(2019, 12, 20);
+        for (int i = 0; i < count; i++) {
+            entries.add(TimesheetEntry.ofMinutes(start.plusDays(random.nextInt(2000)),
+                    random.nextInt(1440), random.nextInt(1440)));
+        }
+        return entries;
+    }
+
+    private static void assertSameReport(TotalsReport expected, TotalsReport actual) {
+        assertEquals(expected.getEntryCount(), actual.getEntryCount());
+        assertEquals(expected.getTotalMinutes(), actual.getTotalMinutes());
+        assertArrayEquals(expected.getDays(), actual.getDays());
+        assertArrayEquals(expected.getWeeks(), actual.getWeeks());
+        assertArrayEquals(expected.getMonths(), actual.getMonths());
+        assertArrayEquals(expected.getYears(), actual.getYears());
+        for (int day : expected.getDays()) {
+            assertEquals(expected.getDailyTotal(day), actual.getDailyTotal(day));
+        }
+        for (int week : expected.getWeeks()) {
+            assertEquals(expected.getWeeklyTotal(week), actual.getWeeklyTotal(week));
+        }
+        for (int year : expected.getYears()) {
+            assertEquals(expected.getYearlyTotal(year), actual.getYearlyTotal(year));
+        }
+    }
+}
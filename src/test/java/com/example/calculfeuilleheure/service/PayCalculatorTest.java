@@ -0,0 +1,115 @@
+package com.example.calculfeuilleheure.service;
+
+import com.example.calculfeuilleheure.model.TimesheetColumns;
+import com.example.calculfeuilleheure.model.TimesheetEntry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PayCalculatorTest {
+
+    // Lundi de la semaine 2 de 2025
+    private static final LocalDate MONDAY = LocalDate.of(2025, 1, 6);
+
+    @Test
+    public void testNightMinutesAndBreaks() {
+        PayCalculator pay = PayRules.defaults().compile();
+
+        // 8h - 16h : pause de 20 minutes, pas de nuit
+        assertEquals(20, pay.breakMinutes(8 * 60, 16 * 60));
+        assertEquals(460, pay.paidMinutes(8 * 60, 16 * 60));
+        assertEquals(0, pay.nightMinutes(8 * 60, 16 * 60));
+
+        // 22h - 6h : huit heures de nuit, la pause réduit les heures payées
+        assertEquals(460, pay.nightMinutes(22 * 60, 6 * 60));
+
+        // 18h - 23h : moins de 6h, pas de pause, deux heures de nuit
+        assertEquals(0, pay.breakMinutes(18 * 60, 23 * 60));
+        assertEquals(120, pay.nightMinutes(18 * 60, 23 * 60));
+
+        // 5h - 13h : une heure de nuit le matin
+        assertEquals(60, pay.nightMinutes(5 * 60, 13 * 60));
+
+        // 4h - 22h : deux heures de nuit le matin, une le soir
+        assertEquals(180, pay.nightMinutes(4 * 60, 22 * 60));
+    }
+
+    @Test
+    public void testHighestBreakTierApplies() {
+        PayCalculator pay = PayRules.none().withBreak(9 * 60, 45).withBreak(6 * 60, 30).compile();
+        assertEquals(0, pay.breakMinutes(8 * 60, 13 * 60));
+        assertEquals(30, pay.breakMinutes(8 * 60, 16 * 60));
+        assertEquals(45, pay.breakMinutes(8 * 60, 18 * 60));
+    }
+
+    @Test
+    public void testDailyThenWeeklyOvertime() {
+        PayCalculator pay = PayRules.none().withDailyOvertime(8 * 60).withWeeklyOvertime(35 * 60).compile();
+
+        List<TimesheetEntry> entries = new ArrayList<>();
+        for (int day = 0; day < 5; day++) {
+            // 9h par jour, en deux entrées : 1h journalière chaque jour
+            entries.add(TimesheetEntry.ofMinutes(MONDAY.plusDays(day), 8 * 60, 12 * 60));
+            entries.add(TimesheetEntry.ofMinutes(MONDAY.plusDays(day), 13 * 60, 18 * 60));
+        }
+        // Semaine suivante : 8h seulement, sans heures supplémentaires
+        entries.add(TimesheetEntry.ofMinutes(MONDAY.plusDays(7), 0, 0));
+        entries.add(TimesheetEntry.ofMinutes(MONDAY.plusDays(8), 6 * 60, 14 * 60));
+
+        PaySummary summary = pay.summarize(entries);
+        assertEquals(12, summary.getEntryCount());
+        assertEquals(45 * 60 + 8 * 60, summary.getPaidMinutes());
+        assertEquals(5 * 60, summary.getDailyOvertimeMinutes());
+        // 40h restantes la première semaine, seuil à 35h
+        assertEquals(5 * 60, summary.getWeeklyOvertimeMinutes());
+        assertEquals(summary.getPaidMinutes() - 10 * 60, summary.getRegularMinutes());
+    }
+
+    @Test
+    public void testColumnsMatchEntriesInAnyOrder() {
+        Random random = new Random(5);
+        List<TimesheetEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            entries.add(TimesheetEntry.ofMinutes(MONDAY.plusDays(random.nextInt(400)),
+                    random.nextInt(1440), random.nextInt(1440)));
+        }
+        PayCalculator pay = PayRules.defaults().withDailyOvertime(10 * 60).compile();
+        PaySummary expected = pay.summarize(entries);
+
+        long night = 0;
+        long worked = 0;
+        for (TimesheetEntry entry : entries) {
+            night += pay.nightMinutes(entry);
+            worked += entry.getWorkedMinutes();
+        }
+        assertEquals(night, expected.getNightMinutes());
+        assertEquals(worked, expected.getWorkedMinutes());
+        assertEquals(worked, expected.getPaidMinutes() + expected.getBreakMinutes());
+
+        Collections.shuffle(entries, new Random(9));
+        assertSameSummary(expected, pay.summarize(entries));
+        assertSameSummary(expected, pay.summarize(TimesheetColumns.of(entries)));
+    }
+
+    @Test
+    public void testInvalidRules() {
+        assertThrows(IllegalArgumentException.class, () -> PayRules.none().withNightWindow(21 * 60, 1440));
+        assertThrows(IllegalArgumentException.class, () -> PayRules.none().withBreak(6 * 60, -5));
+        assertThrows(IllegalArgumentException.class, () -> PayRules.none().withWeeklyOvertime(-1));
+    }
+
+    private static void assertSameSummary(PaySummary expected, PaySummary actual) {
+        assertEquals(expected.getEntryCount(), actual.getEntryCount());
+        assertEquals(expected.getWorkedMinutes(), actual.getWorkedMinutes());
+        assertEquals(expected.getBreakMinutes(), actual.getBreakMinutes());
+        assertEquals(expected.getNightMinutes(), actual.getNightMinutes());
+        assertEquals(expected.getDailyOvertimeMinutes(), actual.getDailyOvertimeMinutes());
+        assertEquals(expected.getWeeklyOvertimeMinutes(), actual.getWeeklyOvertimeMinutes());
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.calculfeuilleheure.service;
+
+import com.example.calculfeuilleheure.model.TimesheetEntry;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Vérifie que la maintenance incrémentale des totaux de paie donne le même
+ * résultat qu'un calcul complet.
+ */
+public class PayTotalsAggregatorTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 12, 16);
+
+    // Seuils bas : des heures supplémentaires apparaissent et disparaissent souvent
+    private final PayCalculator calculator = PayRules.defaults()
+            .withDailyOvertime(6 * 60).withWeeklyOvertime(20 * 60).compile();
+
+    @Test
+    public void testIncrementalMatchesSummarize() {
+        Random random = new Random(11);
+        ObservableList<TimesheetEntry> entries = FXCollections.observableArrayList();
+        PayTotalsAggregator incremental = new PayTotalsAggregator(calculator);
+        incremental.attach(entries);
+
+        for (int step = 0; step < 2000; step++) {
+            int action = random.nextInt(10);
+            if (action < 5 || entries.isEmpty()) {
+                entries.add(randomEntry(random));
+            } else if (action < 8) {
+                entries.remove(random.nextInt(entries.size()));
+            } else if (action < 9) {
+                entries.set(random.nextInt(entries.size()), randomEntry(random));
+            } else {
+                List<TimesheetEntry> batch = new ArrayList<>();
+                for (int i = 0; i < 5; i++) {
+                    batch.add(randomEntry(random));
+                }
+                entries.addAll(batch);
+            }
+            assertSameSummary(calculator.summarize(entries), incremental.getSummary());
+        }
+
+        entries.clear();
+        assertSameSummary(calculator.summarize(entries), incremental.getSummary());
+    }
+
+    @Test
+    public void testRefreshAfterEntryModification() {
+        ObservableList<TimesheetEntry> entries = FXCollections.observableArrayList();
+        PayTotalsAggregator aggregator = new PayTotalsAggregator(calculator);
+        aggregator.attach(entries);
+
+        TimesheetEntry entry = TimesheetEntry.ofMinutes(START, 8 * 60, 12 * 60);
+        entries.add(entry);
+        entries.add(TimesheetEntry.ofMinutes(START, 13 * 60, 17 * 60));
+        assertEquals(2 * 60, aggregator.getSummary().getDailyOvertimeMinutes());
+
+        // Déplacée au lendemain : plus d'heures supplémentaires le premier jour
+        entry.setDate(START.plusDays(1));
+        aggregator.refresh(entry);
+        assertSameSummary(calculator.summarize(entries), aggregator.getSummary());
+        assertEquals(0, aggregator.getSummary().getDailyOvertimeMinutes());
+    }
+
+    private static TimesheetEntry randomEntry(Random random) {
+        return TimesheetEntry.ofMinutes(START.plusDays(random.nextInt(40)),
+                random.nextInt(24 * 4) * 15, random.nextInt(24 * 4) * 15);
+    }
+
+    private static void assertSameSummary(PaySummary expected, PaySummary actual) {
+        assertEquals(expected.getEntryCount(), actual.getEntryCount());
+        assertEquals(expected.getWorkedMinutes(), actual.getWorkedMinutes());
+        assertEquals(expected.getBreakMinutes(), actual.getBreakMinutes());
+        assertEquals(expected.getPaidMinutes(), actual.getPaidMinutes());
+        assertEquals(expected.getNightMinutes(), actual.getNightMinutes());
+        assertEquals(expected.getDailyOvertimeMinutes(), actual.getDailyOvertimeMinutes());
+        assertEquals(expected.getWeeklyOvertimeMinutes(), actual.getWeeklyOvertimeMinutes());
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.calculfeuilleheure.service;
+
+import com.example.calculfeuilleheure.model.TimesheetEntry;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShiftIndexTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 1, 6);
+
+    @Test
+    public void testOverlapsIncludingNightShifts() {
+        ObservableList<TimesheetEntry> entries = FXCollections.observableArrayList();
+        ShiftIndex index = new ShiftIndex();
+        index.attach(entries);
+
+        TimesheetEntry morning = TimesheetEntry.ofMinutes(DAY, 8 * 60, 12 * 60);
+        TimesheetEntry night = TimesheetEntry.ofMinutes(DAY, 22 * 60, 6 * 60);
+        entries.addAll(morning, night);
+
+        // Contigu au créneau du matin : pas de chevauchement
+        assertTrue(index.overlapping(DAY, 12 * 60, 16 * 60).isEmpty());
+        assertEquals(List.of(morning), index.overlapping(DAY, 11 * 60, 13 * 60));
+        // Doublon exact
+        assertEquals(List.of(morning), index.overlapping(DAY, 8 * 60, 12 * 60));
+        // La nuit déborde sur le lendemain matin
+        assertEquals(List.of(night), index.overlapping(DAY.plusDays(1), 5 * 60, 9 * 60));
+        assertTrue(index.overlapping(DAY.plusDays(1), 6 * 60, 9 * 60).isEmpty());
+        // Une entrée ne se chevauche pas elle-même
+        assertTrue(index.overlapping(night).isEmpty());
+
+        entries.remove(morning);
+        assertTrue(index.overlapping(DAY, 11 * 60, 13 * 60).isEmpty());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void testRangeQueries() {
+        ShiftIndex index = new ShiftIndex();
+        TimesheetEntry night = TimesheetEntry.ofMinutes(DAY, 22 * 60, 6 * 60);
+        TimesheetEntry day = TimesheetEntry.ofMinutes(DAY.plusDays(1), 9 * 60, 17 * 60);
+        index.rebuild(List.of(night, day));
+
+        LocalDateTime midnight = DAY.plusDays(1).atStartOfDay();
+        assertEquals(List.of(night, day), index.between(midnight, midnight.plusDays(1)));
+        // 6h de la nuit après minuit et 8h de journée
+        assertEquals(14 * 60, index.workedMinutesBetween(midnight, midnight.plusDays(1)));
+        // Entrée de nuit coupée à minuit
+        assertEquals(2 * 60, index.workedMinutesBetween(DAY.atTime(21, 30), midnight));
+        assertTrue(index.between(midnight.plusHours(7), midnight.plusHours(8)).isEmpty());
+    }
+
+    @Test
+    public void testMatchesBruteForce() {
+        Random random = new Random(13);
+        List<TimesheetEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 3_000; i++) {
+            entries.add(TimesheetEntry.ofMinutes(DAY.plusDays(random.nextInt(1000)),
+                    random.nextInt(1440), random.nextInt(1440)));
+        }
+        ObservableList<TimesheetEntry> observable = FXCollections.observableArrayList(entries);
+        ShiftIndex index = new ShiftIndex();
+        index.attach(observable);
+
+        // Remplacement d'une entrée : l'index suit la liste
+        observable.set(0, TimesheetEntry.ofMinutes(DAY.minusDays(3), 23 * 60, 1 * 60));
+        entries.set(0, observable.get(0));
+
+        for (int q = 0; q < 200; q++) {
+            LocalDate date = DAY.plusDays(random.nextInt(1000) - 5);
+            int start = random.nextInt(1440);
+            int end = random.nextInt(1440);
+            long from = date.toEpochDay() * 1440 + start;
+            long to = from + TimesheetEntry.workedMinutes(start, end);
+            List<TimesheetEntry> expected = new ArrayList<>();
+            for (TimesheetEntry entry : entries) {
+                long s = entry.getEpochDay() * 1440L + entry.getStartMinute();
+                long e = s + entry.getWorkedMinutes();
+                if (s < to && e > from && s < e) {
+                    expected.add(entry);
+                }
+            }
+            List<TimesheetEntry> actual = index.overlapping(date, start, end);
+            assertEquals(expected.size(), actual.size());
+            assertTrue(actual.containsAll(expected));
+        }
+    }
+}
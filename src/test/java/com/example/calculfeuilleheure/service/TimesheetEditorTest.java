@@ -0,0 +1,64 @@
+package com.example.calculfeuilleheure.service;
+
+import com.example.calculfeuilleheure.model.TimesheetEntry;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Vérifie que chaque opération groupée ne produit qu'une notification
+ * et laisse les totaux cohérents.
+ */
+public class TimesheetEditorTest {
+
+    // Lundi
+    private static final LocalDate MONDAY = LocalDate.of(2025, 1, 6);
+
+    @Test
+    public void testBatchOperationsNotifyOnce() {
+        ObservableList<TimesheetEntry> entries = FXCollections.observableArrayList();
+        TotalsAggregator totals = new TotalsAggregator();
+        totals.attach(entries);
+        AtomicInteger notifications = new AtomicInteger();
+        entries.addListener((javafx.collections.ListChangeListener<TimesheetEntry>) c -> notifications.incrementAndGet());
+        TimesheetEditor editor = new TimesheetEditor(entries);
+
+        List<TimesheetEntry> week = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            week.add(TimesheetEntry.ofMinutes(MONDAY.plusDays(i), 480, 960));
+        }
+        editor.addAll(week);
+        assertEquals(1, notifications.getAndSet(0));
+
+        assertEquals(7, editor.duplicateWeek(MONDAY.plusDays(3), MONDAY.plusDays(7)));
+        assertEquals(1, notifications.getAndSet(0));
+        assertEquals(14, entries.size());
+        assertEquals(7 * 480, totals.getWeeklyTotal(entries.get(7).getYearWeek()));
+
+        // Sélection non contiguë
+        assertEquals(3, editor.removeAll(List.of(entries.get(1), entries.get(5), entries.get(12))));
+        assertEquals(1, notifications.getAndSet(0));
+        assertEquals(11, entries.size());
+
+        // Décale la deuxième semaine de deux semaines
+        assertEquals(6, editor.shiftDates(MONDAY.plusDays(7), MONDAY.plusDays(13), 14));
+        assertEquals(1, notifications.getAndSet(0));
+        assertEquals(0, totals.getWeeklyTotal(TimesheetEntry.yearWeek(2025, 3)));
+        assertEquals(6 * 480, totals.getWeeklyTotal(TimesheetEntry.yearWeek(2025, 5)));
+        assertEquals(MONDAY.plusDays(21), entries.get(5).getDate());
+
+        TotalsAggregator rebuilt = new TotalsAggregator();
+        rebuilt.rebuild(entries);
+        for (TimesheetEntry entry : entries) {
+            assertEquals(rebuilt.getDailyTotal(entry.getEpochDay()), totals.getDailyTotal(entry.getEpochDay()));
+            assertEquals(rebuilt.isLastInWeek(entry), totals.isLastInWeek(entry));
+        }
+    }
+}
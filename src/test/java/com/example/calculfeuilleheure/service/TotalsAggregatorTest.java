@@ -0,0 +1,91 @@
+package com.example.calculfeuilleheure.service;
+
+import com.example.calculfeuilleheure.model.TimesheetEntry;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Vérifie que la maintenance incrémentale des totaux donne le même résultat
+ * qu'un recalcul complet.
+ */
+public class TotalsAggregatorTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 12, 16);
+    private static final int DAYS = 40;
+
+    @Test
+    public void testIncrementalMatchesFullRebuild() {
+        Random random = new Random(42);
+        ObservableList<TimesheetEntry> entries = FXCollections.observableArrayList();
+        TotalsAggregator incremental = new TotalsAggregator();
+        incremental.attach(entries);
+
+        for (int step = 0; step < 2000; step++) {
+            int action = random.nextInt(10);
+            if (action < 5 || entries.isEmpty()) {
+                entries.add(randomEntry(random));
+            } else if (action < 8) {
+                entries.remove(random.nextInt(entries.size()));
+            } else if (action < 9) {
+                entries.set(random.nextInt(entries.size()), randomEntry(random));
+            } else {
+                List<TimesheetEntry> batch = new ArrayList<>();
+                for (int i = 0; i < 5; i++) {
+                    batch.add(randomEntry(random));
+                }
+                entries.addAll(batch);
+            }
+
+            TotalsAggregator rebuilt = new TotalsAggregator();
+            rebuilt.rebuild(entries);
+            assertSameTotals(rebuilt, incremental);
+        }
+    }
+
+    @Test
+    public void testRefreshAfterEntryModification() {
+        ObservableList<TimesheetEntry> entries = FXCollections.observableArrayList();
+        TotalsAggregator aggregator = new TotalsAggregator();
+        aggregator.attach(entries);
+
+        TimesheetEntry entry = new TimesheetEntry(LocalDate.of(2025, 1, 6), 8.0, 12.0);
+        entries.add(entry);
+        entries.add(new TimesheetEntry(LocalDate.of(2025, 1, 7), 8.0, 10.0));
+
+        entry.setDate(LocalDate.of(2025, 1, 8));
+        aggregator.refresh(entry);
+
+        assertEquals(0, aggregator.getDateCount((int) LocalDate.of(2025, 1, 6).toEpochDay()));
+        assertEquals(4 * 60, aggregator.getDailyTotal(entry.getEpochDay()));
+        assertEquals(6 * 60, aggregator.getWeeklyTotal(entry.getYearWeek()));
+        assertTrue(aggregator.isLastInWeek(entry));
+    }
+
+    private static TimesheetEntry randomEntry(Random random) {
+        LocalDate date = START.plusDays(random.nextInt(DAYS));
+        double start = random.nextInt(24 * 4) / 4.0;
+        double end = random.nextInt(24 * 4) / 4.0;
+        return new TimesheetEntry(date, start, end);
+    }
+
+    private static void assertSameTotals(TotalsAggregator expected, TotalsAggregator actual) {
+        for (int i = 0; i < DAYS; i++) {
+            TimesheetEntry probe = new TimesheetEntry(START.plusDays(i), 0.0, 0.0);
+            int day = probe.getEpochDay();
+            assertEquals(expected.getDateCount(day), actual.getDateCount(day), "count " + probe.getDate());
+            assertEquals(expected.getDailyTotal(day), actual.getDailyTotal(day), "daily " + probe.getDate());
+
+            int week = probe.getYearWeek();
+            assertEquals(expected.getWeeklyTotal(week), actual.getWeeklyTotal(week), "weekly " + week);
+            assertEquals(expected.getWeekMaxDate(week), actual.getWeekMaxDate(week), "max " + week);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.calculfeuilleheure.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HoursFormatTest {
+
+    @Test
+    public void testMatchesStringFormat() {
+        for (int m = 0; m < 200 * 60; m += 7) {
+            String expected = String.format("%dh%02d", m / 60, m % 60);
+            assertEquals(expected, HoursFormat.format(m));
+            assertEquals(expected, HoursFormat.appendTo(new StringBuilder(), m).toString());
+        }
+    }
+
+    @Test
+    public void testTotalsAndNegativeValues() throws IOException {
+        assertEquals("1000h00", HoursFormat.format(60_000));
+        assertEquals("-1h30", HoursFormat.format(-90));
+        assertEquals("8h30", HoursFormat.format(510L));
+        assertEquals("50000000h00", HoursFormat.format(3_000_000_000L));
+        assertEquals("-153722867280912930h08", HoursFormat.format(Long.MIN_VALUE));
+
+        StringWriter writer = new StringWriter();
+        HoursFormat.appendTo(writer, 2430);
+        writer.append(';');
+        HoursFormat.appendTo(writer, 510);
+        assertEquals("40h30;8h30", writer.toString());
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.calculfeuilleheure.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HoursParserTest {
+
+    @Test
+    public void testValidFormats() {
+        assertEquals(510, HoursParser.parse("8h30"));
+        assertEquals(510, HoursParser.parse("08h30"));
+        assertEquals(510, HoursParser.parse("8:30"));
+        assertEquals(0, HoursParser.parse("0h00"));
+        assertEquals(23 * 60 + 59, HoursParser.parse("23h59"));
+    }
+
+    @Test
+    public void testInvalidFormats() {
+        String[] invalid = {"", "8", "8h", "8h3", "8h60", "108h30", "8h300", "ah30", "8x30", "-8h30", " 8h30", null};
+        for (String text : invalid) {
+            assertEquals(HoursParser.INVALID, HoursParser.parse(text), String.valueOf(text));
+        }
+    }
+
+    @Test
+    public void testParseRangeOfBuffer() {
+        char[] line = "2025-01-06;08h30;17h45".toCharArray();
+        assertEquals(510, HoursParser.parse(line, 11, 16));
+        assertEquals(17 * 60 + 45, HoursParser.parse(line, 17, 22));
+        assertEquals(17 * 60 + 45, HoursParser.parse("2025-01-06;08h30;17h45", 17, 22));
+    }
+
+    @Test
+    public void testTimeOfDay() {
+        assertTrue(HoursParser.isTimeOfDay(HoursParser.parse("0h00")));
+        assertTrue(HoursParser.isTimeOfDay(HoursParser.parse("23h59")));
+        assertFalse(HoursParser.isTimeOfDay(HoursParser.parse("24h00")));
+        assertFalse(HoursParser.isTimeOfDay(HoursParser.parse("45h00")));
+        assertFalse(HoursParser.isTimeOfDay(HoursParser.INVALID));
+    }
+
+    @Test
+    public void testMatchesLegacyRegexValidation() {
+        for (int h = 0; h < 100; h++) {
+            for (int m = 0; m < 100; m++) {
+                String text = h + "h" + (m < 10 ? "0" : "") + m;
+                boolean legacyValid = text.matches("^\\d{1,2}h\\d{2}$") && m < 60;
+                assertEquals(legacyValid ? h * 60 + m : HoursParser.INVALID, HoursParser.parse(text), text);
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.calculfeuilleheure.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntIntHashMapTest {
+
+    @Test
+    public void testMatchesHashMapUnderRandomOperations() {
+        Random random = new Random(7);
+        IntIntHashMap map = new IntIntHashMap(2);
+        Map<Integer, Integer> reference = new HashMap<>();
+
+        for (int step = 0; step < 50_000; step++) {
+            // Petit domaine de clés pour provoquer collisions et suppressions
+            int key = random.nextInt(500) - 250;
+            switch (random.nextInt(3)) {
+                case 0:
+                    map.put(key, step);
+                    reference.put(key, step);
+                    break;
+                case 1:
+                    assertEquals(reference.merge(key, 3, Integer::sum), map.addTo(key, 3));
+                    break;
+                default:
+                    assertEquals(reference.remove(key) != null, map.remove(key));
+                    break;
+            }
+            assertEquals(reference.size(), map.size());
+        }
+        for (int key = -250; key < 250; key++) {
+            assertEquals(reference.containsKey(key), map.containsKey(key));
+            assertEquals((int) reference.getOrDefault(key, -1), map.get(key, -1));
+        }
+    }
+
+    @Test
+    public void testClear() {
+        IntIntHashMap map = new IntIntHashMap();
+        map.put(202503, 20108);
+        map.clear();
+        assertEquals(0, map.size());
+        assertFalse(map.containsKey(202503));
+    }
+}
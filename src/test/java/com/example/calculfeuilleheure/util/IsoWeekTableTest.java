@@ -0,0 +1,32 @@
+package com.example.calculfeuilleheure.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.temporal.IsoFields;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IsoWeekTableTest {
+
+    @Test
+    public void testMatchesLocalDate() {
+        // Parcours en partant du milieu pour étendre la table des deux côtés
+        LocalDate middle = LocalDate.of(2000, 1, 1);
+        for (int i = 0; i < 60_000; i++) {
+            LocalDate date = middle.plusDays(i % 2 == 0 ? i / 2 : -(i / 2) - 1);
+            assertEquals(expected(date), IsoWeekTable.yearWeek((int) date.toEpochDay()), date.toString());
+        }
+    }
+
+    @Test
+    public void testDistantDatesAreComputedDirectly() {
+        for (LocalDate date : new LocalDate[]{LocalDate.of(1, 1, 1), LocalDate.of(-50, 6, 15), LocalDate.of(9999, 12, 31)}) {
+            assertEquals(expected(date), IsoWeekTable.yearWeek((int) date.toEpochDay()), date.toString());
+        }
+    }
+
+    private static int expected(LocalDate date) {
+        return date.get(IsoFields.WEEK_BASED_YEAR) * 100 + date.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR);
+    }
+}